@@ -0,0 +1,85 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.codec.Base64Variant;
+import com.example.myhttpbin.dto.Base64Response;
+import com.example.myhttpbin.dto.DtoSerializers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Base64 decoding as the endpoints do it: {@code GET /base64/{value}}, which decodes the path
+ * into a String and serializes a {@link Base64Response}, against the streaming {@code POST
+ * /base64/decode} and {@code /base64/encode} bodies that pass through a wrapping stream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64Benchmark {
+
+    /** Size of the decoded text, in bytes. */
+    @Param({"18", "4096", "65536"})
+    private int size;
+
+    // Like Spring's message converter, leave the response stream open
+    private final ObjectMapper objectMapper =
+            new ObjectMapper()
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .registerModule(new DtoSerializers());
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private byte[] decoded;
+    private byte[] encoded;
+    private String encodedPath;
+
+    @Setup
+    public void setUp() {
+        decoded = new byte[size];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < size; i++) {
+            decoded[i] = (byte) ('a' + random.nextInt(26));
+        }
+        encoded = Base64.getEncoder().encode(decoded);
+        encodedPath = new String(encoded, StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public void pathDecode() throws IOException {
+        String text = new String(Base64.getDecoder().decode(encodedPath));
+        objectMapper.writeValue(out, new Base64Response(text));
+    }
+
+    @Benchmark
+    public void streamingDecode() throws IOException {
+        Base64Variant.STANDARD.decoder().wrap(new ByteArrayInputStream(encoded)).transferTo(out);
+    }
+
+    @Benchmark
+    public void streamingEncode() throws IOException {
+        try (OutputStream encoder = Base64Variant.STANDARD.encoder().wrap(out)) {
+            encoder.write(decoded);
+        }
+    }
+}
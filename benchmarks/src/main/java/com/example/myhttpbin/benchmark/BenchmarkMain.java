@@ -0,0 +1,51 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}: the JMH command line, with the GC profiler always on so
+ * every result comes with {@code gc.alloc.rate.norm}, the bytes allocated per operation.
+ *
+ * <p>Usage: {@code java -jar target/benchmarks.jar [JMH options] [benchmark regexp]}, for
+ * example {@code java -jar target/benchmarks.jar EchoBenchmark -f 1 -wi 3 -i 5}.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args)
+            throws CommandLineOptionException, IOException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp()
+                || commandLine.shouldList()
+                || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats()) {
+            // Nothing is run, JMH prints what was asked for
+            Main.main(args);
+            return;
+        }
+
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        boolean gcProfiled =
+                commandLine.getProfilers().stream()
+                        .anyMatch(
+                                profiler ->
+                                        profiler.getKlass().equals("gc")
+                                                || profiler.getKlass()
+                                                        .equals(GCProfiler.class.getName()));
+        if (!gcProfiled) {
+            options.addProfiler(GCProfiler.class);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.myhttpbin.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.random.Alphabet;
+import com.example.myhttpbin.random.RandomAlgorithm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Producing the body of {@code /chars/{n}}: the original per-character {@link SecureRandom} loop
+ * that builds a String and encodes it, against the table-driven {@link Alphabet} fill into a
+ * reusable byte chunk with the shared secure and the per-thread splittable generator.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharsBenchmark {
+
+    private static final String CHARS =
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @Param({"1048576"})
+    private int n;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final byte[] chunk = new byte[CHUNK_SIZE];
+
+    @Setup
+    public void setUp() {
+        // Touch the per-thread generator so its creation is not measured
+        RandomAlgorithm.SPLITTABLE.current();
+    }
+
+    @Benchmark
+    public byte[] perCharacterSecureRandom() {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            result.append(CHARS.charAt(secureRandom.nextInt(CHARS.length())));
+        }
+        return result.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] tableDrivenSecure() {
+        return fillChunks(RandomAlgorithm.SECURE);
+    }
+
+    @Benchmark
+    public byte[] tableDrivenSplittable() {
+        return fillChunks(RandomAlgorithm.SPLITTABLE);
+    }
+
+    private byte[] fillChunks(RandomAlgorithm algorithm) {
+        for (int remaining = n; remaining > 0; remaining -= CHUNK_SIZE) {
+            Alphabet.ALPHANUMERIC.fill(
+                    algorithm.current(), chunk, Math.min(CHUNK_SIZE, remaining));
+        }
+        return chunk;
+    }
+}
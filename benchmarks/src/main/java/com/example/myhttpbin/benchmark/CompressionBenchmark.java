@@ -0,0 +1,144 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.example.myhttpbin.compression.CompressingOutputStream;
+import com.example.myhttpbin.compression.ContentCoding;
+import com.example.myhttpbin.compression.ResponseCompression;
+import com.example.myhttpbin.random.Alphabet;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * CPU spent compressing the generated payloads against the bandwidth it saves, per payload and
+ * zlib level. The {@code input} secondary result is payload bytes compressed per second of one
+ * core, its inverse the CPU per byte, and {@code output} the compressed bytes; one minus their
+ * ratio is the bandwidth saved. Random {@code bytes} are incompressible, alphanumeric {@code
+ * chars} save about a quarter, the {@code letters} of {@code /range} nearly all of it.
+ *
+ * <p>{@link #pooled} compresses through {@link ResponseCompression} with a pooled deflater, {@link
+ * #unpooled} with a {@link GZIPOutputStream} and its own deflater per response; the difference is
+ * the native zlib setup, which matters for small bodies.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"chars", "bytes", "letters"})
+    private String payload;
+
+    @Param({"1024", "65536"})
+    private int size;
+
+    @Param({"1", "6", "9"})
+    private int level;
+
+    private byte[] body;
+    private ResponseCompression compression;
+    private final CountingSink sink = new CountingSink();
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Bandwidth {
+        public long input;
+        public long output;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            input = 0;
+            output = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        body = new byte[size];
+        SplittableRandom random = new SplittableRandom(42);
+        switch (payload) {
+            case "chars" -> Alphabet.ALPHANUMERIC.fill(random, body, size);
+            case "bytes" -> random.nextBytes(body);
+            case "letters" -> {
+                for (int i = 0; i < size; i++) {
+                    body[i] = (byte) ('a' + i % 26);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+        compression =
+                new ResponseCompression(
+                        level,
+                        level,
+                        DataSize.ofBytes(0),
+                        1,
+                        DataSize.ofBytes(0),
+                        DataSize.ofBytes(0),
+                        new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public long pooled(Bandwidth bandwidth) throws IOException {
+        sink.count = 0;
+        try (CompressingOutputStream out = compression.compress(sink, ContentCoding.GZIP, level)) {
+            out.write(body);
+        }
+        return record(bandwidth);
+    }
+
+    @Benchmark
+    public long unpooled(Bandwidth bandwidth) throws IOException {
+        sink.count = 0;
+        try (GZIPOutputStream out =
+                new GZIPOutputStream(sink, 8 * 1024) {
+                    {
+                        def.setLevel(level);
+                    }
+                }) {
+            out.write(body);
+        }
+        return record(bandwidth);
+    }
+
+    private long record(Bandwidth bandwidth) {
+        bandwidth.input += body.length;
+        bandwidth.output += sink.count;
+        return sink.count;
+    }
+
+    /** Discards what is written, as the socket would take it away. */
+    private static final class CountingSink extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            count += length;
+        }
+    }
+}
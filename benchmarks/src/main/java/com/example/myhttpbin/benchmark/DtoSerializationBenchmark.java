@@ -0,0 +1,82 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.dto.Base64Response;
+import com.example.myhttpbin.dto.DelayResponse;
+import com.example.myhttpbin.dto.DtoSerializers;
+import com.example.myhttpbin.dto.ErrorResponse;
+import com.example.myhttpbin.dto.UuidResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializing each response record with Jackson's reflective bean serializer against the
+ * hand-written {@link DtoSerializers}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoSerializationBenchmark {
+
+    @Param({"uuid", "base64", "error", "delay"})
+    private String dto;
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+    // Like Spring's message converter, leave the response stream open
+    private final ObjectMapper reflective =
+            new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final ObjectMapper handWritten =
+            new ObjectMapper()
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .registerModule(new DtoSerializers());
+    private Object value;
+
+    @Setup
+    public void setUp() {
+        value =
+                switch (dto) {
+                    case "uuid" -> new UuidResponse("0190c1a4-7b8e-7cc2-8e1f-2d0a6c1b9e44");
+                    case "base64" -> new Base64Response("HTTPBIN is awesome");
+                    case "error" ->
+                            new ErrorResponse("Invalid size", "Number of bytes must be positive");
+                    case "delay" ->
+                            new DelayResponse(
+                                    Map.of("param1", "value1", "tag", List.of("a", "b")),
+                                    Map.of("Host", "localhost:8080", "Accept", "*/*"),
+                                    "127.0.0.1",
+                                    "http://localhost:8080/delay/1?param1=value1");
+                    default -> throw new IllegalArgumentException("Unknown DTO: " + dto);
+                };
+    }
+
+    @Benchmark
+    public void reflective() throws IOException {
+        reflective.writeValue(out, value);
+    }
+
+    @Benchmark
+    public void handWritten() throws IOException {
+        handWritten.writeValue(out, value);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.myhttpbin.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.echo.BodyCapture;
+import com.example.myhttpbin.echo.CapturedBody;
+import com.example.myhttpbin.echo.EchoResponse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Serializing the echo of a typical request, with a few args, a dozen headers and a small JSON
+ * body: the original maps handed to Jackson against {@link EchoResponse} writing from the request
+ * to the generator. The body is captured once up front, as the controller does before the delay.
+ *
+ * <p>{@link #main} adds the GC profiler, {@code gc.alloc.rate.norm} is the bytes allocated per
+ * request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EchoBenchmark {
+
+    private static final String BODY = "{\"name\":\"myhttpbin\",\"items\":[1,2,3],\"ok\":true}";
+
+    // Like Spring's message converter, leave the response stream open
+    private final ObjectMapper objectMapper =
+            new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final OutputStream out = OutputStream.nullOutputStream();
+    private MockHttpServletRequest request;
+    private CapturedBody body;
+
+    @Setup
+    public void setUp() throws IOException {
+        request = new MockHttpServletRequest("POST", "/delay/1");
+        request.setServerName("localhost");
+        request.setQueryString("param1=value1&param2=value2&tag=a&tag=b");
+        request.addParameter("param1", "value1");
+        request.addParameter("param2", "value2");
+        request.addParameter("tag", "a", "b");
+        request.addHeader("Host", "localhost:8080");
+        request.addHeader("User-Agent", "ReactorNetty/1.1.13");
+        request.addHeader("Accept", "*/*");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        request.addHeader("Content-Type", "application/json");
+        request.addHeader("Content-Length", String.valueOf(BODY.length()));
+        request.addHeader("Connection", "keep-alive");
+        request.addHeader("X-Request-Id", "5f0c4a52-9d4e-4c1e-9a53-3b0f7f1b2c11");
+        request.addHeader("X-Forwarded-For", "10.0.0.1");
+        request.addHeader("Traceparent", "00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+        body =
+                new BodyCapture(DataSize.ofMegabytes(1), Path.of("target"), 256)
+                        .capture(new ByteArrayInputStream(BODY.getBytes(UTF_8)), UTF_8);
+    }
+
+    @Benchmark
+    public void maps() throws IOException {
+        Map<String, Object> responseData = buildEchoResponse(request, "POST", BODY);
+        responseData.put("delay", 1.0);
+        objectMapper.writeValue(out, responseData);
+    }
+
+    @Benchmark
+    public void streaming() throws IOException {
+        // Without a parser, the old json field was not parsed either
+        objectMapper.writeValue(
+                out, EchoResponse.of(request, "POST", body, null).withDelay(1.0));
+    }
+
+    /** The echo as the controller built it before {@link EchoResponse}. */
+    private static Map<String, Object> buildEchoResponse(
+            HttpServletRequest request, String method, String body) {
+        Map<String, Object> args = new HashMap<>();
+        request.getParameterMap()
+                .forEach(
+                        (key, values) -> {
+                            if (values.length == 1) {
+                                args.put(key, values[0]);
+                            } else {
+                                args.put(key, Arrays.asList(values));
+                            }
+                        });
+
+        Map<String, String> headers = new HashMap<>();
+        Collections.list(request.getHeaderNames())
+                .forEach(headerName -> headers.put(headerName, request.getHeader(headerName)));
+
+        String url = request.getRequestURL().toString();
+        if (request.getQueryString() != null) {
+            url += "?" + request.getQueryString();
+        }
+
+        Map<String, Object> responseData = new HashMap<>();
+        responseData.put("args", args);
+        responseData.put("headers", headers);
+        responseData.put("origin", request.getRemoteAddr());
+        responseData.put("url", url);
+        responseData.put("method", method);
+        if (body != null && !body.trim().isEmpty()) {
+            responseData.put("data", body);
+            String trimmed = body.trim();
+            responseData.put(
+                    "json", trimmed.startsWith("{") || trimmed.startsWith("[") ? body : null);
+        }
+        return responseData;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options =
+                new OptionsBuilder()
+                        .include(EchoBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.myhttpbin.echo.CredentialHeaders;
+import com.example.myhttpbin.journal.JournalReader;
+import com.example.myhttpbin.journal.JournalRecord;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Re-issues the requests of a journal written with {@code myhttpbin.journal.enabled=true} against
+ * a target, to turn recorded traffic into a repeatable load test. Requests keep their recorded
+ * spacing divided by the speed, sent on schedule whether or not earlier ones have completed, as
+ * with {@link LoadGenerator}; at {@code max} they are sent as fast as {@code connections}
+ * connections complete them. Bodies go from the mapped journal segments to the client without a
+ * copy.
+ *
+ * <p>Usage: {@code JournalReplay <journalDirectory> <targetBaseUrl> [speed] [connections]
+ * [reportFile]}, speed {@code 1x}, {@code 10x}, any other factor or {@code max}, {@code 1x} by
+ * default, over at most 1000 connections. The {@link LoadReport} is printed and written as JSON
+ * to {@code reportFile}, {@code target/replay-report.json} by default. Credentials redacted by
+ * the journal are left out of the replayed requests.
+ */
+public class JournalReplay {
+
+    // Set by the client from the target and the body, or only meaningful to the recorded hop
+    private static final Set<String> SKIPPED_HEADERS =
+            Set.of("host", "content-length", "connection", "transfer-encoding", "keep-alive");
+
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println(
+                    "Usage: JournalReplay <journalDirectory> <targetBaseUrl> [speed]"
+                            + " [connections] [reportFile]");
+            System.exit(2);
+        }
+        Path directory = Path.of(args[0]);
+        String target = args[1];
+        String speed = args.length > 2 ? args[2] : "1x";
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        Path reportFile = Path.of(args.length > 4 ? args[4] : "target/replay-report.json");
+
+        System.out.printf(
+                "=== Replay of %s against %s at %s, %d connections ===%n",
+                directory, target, speed, connections);
+        LoadReport report = run(new JournalReader(directory), target, speed, connections);
+        report.writeJson(reportFile);
+
+        System.out.println(report);
+        System.out.println("Report written to " + reportFile);
+    }
+
+    /**
+     * Replays the records of {@code journal} against {@code target}, then waits for the
+     * outstanding requests.
+     *
+     * @param speed {@code max}, or a factor applied to the recorded pace, with or without {@code
+     *     x}
+     */
+    public static LoadReport run(
+            JournalReader journal, String target, String speed, int connections)
+            throws InterruptedException {
+        double factor = parseSpeed(speed);
+        if (connections <= 0) {
+            throw new IllegalArgumentException("Connections must be positive");
+        }
+        String base = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        ConnectionProvider connectionProvider =
+                ConnectionProvider.builder("journal-replay")
+                        .maxConnections(connections)
+                        .pendingAcquireMaxCount(-1)
+                        .build();
+        WebClient webClient = LoadGenerator.webClient(connectionProvider);
+
+        Histogram latency = new ConcurrentHistogram(3);
+        Histogram serviceTime = new ConcurrentHistogram(3);
+        AtomicLong outstanding = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        // At max speed, one request in flight per connection
+        Semaphore inFlight =
+                new Semaphore(Double.isInfinite(factor) ? connections : Integer.MAX_VALUE);
+
+        long requests = 0;
+        long firstTimestamp = 0;
+        Instant started = Instant.now();
+        long start = System.nanoTime();
+        try {
+            for (JournalRecord record : journal) {
+                if (requests == 0) {
+                    firstTimestamp = record.timestampMillis();
+                }
+                long offsetNanos =
+                        TimeUnit.MILLISECONDS.toNanos(record.timestampMillis() - firstTimestamp);
+                long due =
+                        Double.isInfinite(factor)
+                                ? System.nanoTime()
+                                : start + (long) (offsetNanos / factor);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                inFlight.acquire();
+                outstanding.incrementAndGet();
+                send(
+                        webClient,
+                        base,
+                        record,
+                        due,
+                        latency,
+                        serviceTime,
+                        outstanding,
+                        errors,
+                        inFlight);
+                requests++;
+            }
+
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+            while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long timeouts = outstanding.get();
+            double elapsedSeconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+            return new LoadReport(
+                    base,
+                    "REPLAY " + speed,
+                    started,
+                    requests / elapsedSeconds,
+                    elapsedSeconds,
+                    connections,
+                    requests,
+                    errors.get(),
+                    timeouts,
+                    (requests - timeouts) / elapsedSeconds,
+                    LoadReport.Percentiles.of(latency),
+                    LoadReport.Percentiles.of(serviceTime));
+        } finally {
+            connectionProvider.disposeLater().block();
+        }
+    }
+
+    private static double parseSpeed(String speed) {
+        String value = speed.toLowerCase(Locale.ROOT);
+        if (value.equals("max")) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double factor =
+                Double.parseDouble(
+                        value.endsWith("x") ? value.substring(0, value.length() - 1) : value);
+        if (!(factor > 0) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("Speed must be a positive factor or max: " + speed);
+        }
+        return factor;
+    }
+
+    private static void send(
+            WebClient webClient,
+            String base,
+            JournalRecord record,
+            long due,
+            Histogram latency,
+            Histogram serviceTime,
+            AtomicLong outstanding,
+            AtomicLong errors,
+            Semaphore inFlight) {
+        WebClient.RequestBodySpec request =
+                webClient
+                        .method(HttpMethod.valueOf(record.method()))
+                        // Already encoded as recorded, not to be encoded again
+                        .uri(URI.create(base + record.uri()))
+                        .headers(
+                                headers -> {
+                                    for (Map.Entry<String, List<String>> header :
+                                            record.headers().entrySet()) {
+                                        String name = header.getKey().toLowerCase(Locale.ROOT);
+                                        if (SKIPPED_HEADERS.contains(name)) {
+                                            continue;
+                                        }
+                                        for (String value : header.getValue()) {
+                                            if (!value.equals(CredentialHeaders.REDACTED)) {
+                                                headers.add(header.getKey(), value);
+                                            }
+                                        }
+                                    }
+                                });
+        if (record.body().hasRemaining()) {
+            request.body(
+                    BodyInserters.fromDataBuffers(
+                            Mono.just(
+                                    DefaultDataBufferFactory.sharedInstance.wrap(
+                                            record.body().duplicate()))));
+        }
+        LoadGenerator.record(
+                request.exchangeToMono(
+                        response -> response.releaseBody().thenReturn(response.statusCode())),
+                due,
+                latency,
+                serviceTime,
+                errors,
+                () -> {
+                    outstanding.decrementAndGet();
+                    inFlight.release();
+                });
+    }
+}
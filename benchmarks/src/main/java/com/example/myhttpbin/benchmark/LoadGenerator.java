@@ -0,0 +1,205 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.context.Context;
+
+/**
+ * Open-model load generator: sends requests at a constant arrival rate, whether or not earlier
+ * ones have completed, and records latencies in HdrHistograms. Unlike the closed-loop clients of
+ * {@link ThreadModelBenchmark}, a slow server does not slow down the load, and each latency is
+ * taken from the time the request was due rather than sent, which avoids coordinated omission.
+ *
+ * <p>Usage: {@code LoadGenerator <url> [ratePerSecond] [durationSeconds] [connections] [method]
+ * [reportFile]}, defaults to 1000 GET requests per second for 30 seconds over at most 1000
+ * connections. The summary is printed, the {@link LoadReport} is also written as JSON to {@code
+ * reportFile}, {@code target/load-report.json} by default, to compare server modes and builds.
+ * Requests beyond the connection limit wait for a free connection, which counts towards their
+ * latency. Requests still running 30 seconds after the last one was sent count as timeouts.
+ */
+public class LoadGenerator {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    // Context key of the time a request is written, once it has a connection
+    private static final String SENT = LoadGenerator.class.getName() + ".sent";
+    private static final long NOT_SENT = Long.MIN_VALUE;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println(
+                    "Usage: LoadGenerator <url> [ratePerSecond] [durationSeconds] [connections]"
+                            + " [method] [reportFile]");
+            System.exit(2);
+        }
+        String url = args[0];
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 1000;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        int connections = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+        HttpMethod method = HttpMethod.valueOf(args.length > 4 ? args[4] : "GET");
+        Path reportFile = Path.of(args.length > 5 ? args[5] : "target/load-report.json");
+
+        System.out.printf(
+                "=== %s %s: %.0f req/s, %s, %d connections ===%n",
+                method, url, rate, duration, connections);
+        LoadReport report = run(url, method, rate, duration, connections);
+        report.writeJson(reportFile);
+
+        System.out.println(report);
+        System.out.println("Report written to " + reportFile);
+    }
+
+    /**
+     * Sends {@code method} requests to {@code url} at {@code rate} per second for {@code
+     * duration}, then waits for the outstanding ones.
+     */
+    public static LoadReport run(
+            String url, HttpMethod method, double rate, Duration duration, int connections) {
+        if (rate <= 0 || connections <= 0) {
+            throw new IllegalArgumentException("Rate and connections must be positive");
+        }
+        ConnectionProvider connectionProvider =
+                ConnectionProvider.builder("load-generator")
+                        .maxConnections(connections)
+                        .pendingAcquireMaxCount(-1)
+                        .build();
+        WebClient webClient = webClient(connectionProvider);
+
+        // Auto-resizing, recorded from the client event loops
+        Histogram latency = new ConcurrentHistogram(3);
+        Histogram serviceTime = new ConcurrentHistogram(3);
+        AtomicLong outstanding = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requests = (long) (duration.toNanos() / intervalNanos);
+        Instant started = Instant.now();
+        long start = System.nanoTime();
+        try {
+            for (long i = 0; i < requests; i++) {
+                // Due times follow the schedule, a late send does not push back the ones after it
+                long due = start + (long) (i * intervalNanos);
+                long wait;
+                while ((wait = due - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                outstanding.incrementAndGet();
+                send(webClient, method, url, due, latency, serviceTime, outstanding, errors);
+            }
+
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+            while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            long timeouts = outstanding.get();
+
+            return new LoadReport(
+                    url,
+                    method.name(),
+                    started,
+                    rate,
+                    duration.toMillis() / 1000.0,
+                    connections,
+                    requests,
+                    errors.get(),
+                    timeouts,
+                    (requests - timeouts) / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1)),
+                    LoadReport.Percentiles.of(latency),
+                    LoadReport.Percentiles.of(serviceTime));
+        } finally {
+            connectionProvider.disposeLater().block();
+        }
+    }
+
+    private static void send(
+            WebClient webClient,
+            HttpMethod method,
+            String url,
+            long due,
+            Histogram latency,
+            Histogram serviceTime,
+            AtomicLong outstanding,
+            AtomicLong errors) {
+        record(
+                webClient
+                        .method(method)
+                        .uri(url)
+                        .exchangeToMono(
+                                response ->
+                                        response.releaseBody().thenReturn(response.statusCode())),
+                due,
+                latency,
+                serviceTime,
+                errors,
+                outstanding::decrementAndGet);
+    }
+
+    /** A client over {@code connectionProvider} that notes when each request is written. */
+    static WebClient webClient(ConnectionProvider connectionProvider) {
+        HttpClient httpClient =
+                HttpClient.create(connectionProvider)
+                        .doOnRequest(
+                                (request, connection) ->
+                                        request.currentContextView()
+                                                .<AtomicLong>getOrEmpty(SENT)
+                                                .ifPresent(sent -> sent.set(System.nanoTime())));
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Sends the request of {@code exchange}, a client from {@link #webClient}, and records its
+     * latency from {@code due} and its service time from when it was written, whether it succeeds
+     * or fails. A request that failed before it was written, say on connect, has no service time.
+     * Runs {@code done} once recorded.
+     */
+    static void record(
+            Mono<HttpStatusCode> exchange,
+            long due,
+            Histogram latency,
+            Histogram serviceTime,
+            AtomicLong errors,
+            Runnable done) {
+        AtomicLong sent = new AtomicLong(NOT_SENT);
+        exchange.contextWrite(Context.of(SENT, sent))
+                .subscribe(
+                        status -> {
+                            record(due, sent.get(), latency, serviceTime);
+                            if (status.isError()) {
+                                errors.incrementAndGet();
+                            }
+                            done.run();
+                        },
+                        error -> {
+                            record(due, sent.get(), latency, serviceTime);
+                            errors.incrementAndGet();
+                            done.run();
+                        });
+    }
+
+    private static void record(long due, long sent, Histogram latency, Histogram serviceTime) {
+        long now = System.nanoTime();
+        latency.recordValue(TimeUnit.NANOSECONDS.toMicros(now - due));
+        if (sent != NOT_SENT) {
+            serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(now - sent));
+        }
+    }
+}
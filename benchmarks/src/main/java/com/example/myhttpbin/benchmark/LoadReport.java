@@ -0,0 +1,86 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Outcome of a {@link LoadGenerator} run. Latencies are in microseconds and measured from the
+ * moment each request was due by the arrival schedule, so a stalled server shows up in the tail
+ * instead of silently lowering the request rate. {@code serviceTime} is measured from when the
+ * request was written to its connection, the gap between the two is the time requests queued
+ * client-side, waiting for a connection included. Failed requests are recorded as well, in {@code
+ * serviceTime} only if they were written.
+ */
+public record LoadReport(
+        String url,
+        String method,
+        Instant started,
+        double targetRate,
+        double durationSeconds,
+        int connections,
+        long requests,
+        long errors,
+        long timeouts,
+        double throughput,
+        Percentiles latency,
+        Percentiles serviceTime) {
+
+    /** Percentiles of one histogram, in microseconds. */
+    public record Percentiles(long p50, long p90, long p99, long p999, long max, double mean) {
+
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9),
+                    histogram.getMaxValue(),
+                    histogram.getMean());
+        }
+
+        private String toText() {
+            return String.format(
+                    "p50 %9.3f ms, p90 %9.3f ms, p99 %9.3f ms, p99.9 %9.3f ms, max %9.3f ms",
+                    p50 / 1000.0, p90 / 1000.0, p99 / 1000.0, p999 / 1000.0, max / 1000.0);
+        }
+    }
+
+    public void writeJson(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .writerWithDefaultPrettyPrinter()
+                .writeValue(file.toFile(), this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%s %s at %.0f req/s for %.0f s over %d connections%n"
+                        + "  %d requests, %d errors, %d timeouts, %.1f req/s%n"
+                        + "  latency      %s%n"
+                        + "  service time %s",
+                method,
+                url,
+                targetRate,
+                durationSeconds,
+                connections,
+                requests,
+                errors,
+                timeouts,
+                throughput,
+                latency.toText(),
+                serviceTime.toText());
+    }
+}
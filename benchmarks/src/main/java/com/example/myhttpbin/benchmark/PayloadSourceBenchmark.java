@@ -0,0 +1,125 @@
+package com.example.myhttpbin.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.payload.RandomContentPool;
+import com.example.myhttpbin.random.Alphabet;
+import com.example.myhttpbin.random.RandomAlgorithm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Serving a {@code /bytes} or {@code /chars} body from the pre-generated {@link
+ * RandomContentPool} against generating it on demand, with several threads writing at once.
+ *
+ * <p>Bodies go to a {@link SocketBuffer} that copies them into an 8KB direct buffer, as Tomcat's
+ * output buffer does before the socket write, so the numbers are the server-side cost without
+ * the network. Pooled bodies are written as the slices {@link RandomContentPool#byteSlices} hands
+ * to {@code CoyoteOutputStream.write(ByteBuffer)}, the path production takes on Tomcat; a plain
+ * {@code OutputStream} would measure the {@code Channels.newChannel} fallback instead, which
+ * copies through heap buffers.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class PayloadSourceBenchmark {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+        RandomContentPool contentPool;
+
+        @Setup
+        public void setUp() {
+            contentPool = new RandomContentPool(DataSize.ofMegabytes(16));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Response {
+        @Param({"1048576"})
+        int n;
+
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        SocketBuffer out;
+
+        @Setup
+        public void setUp(Blackhole blackhole) {
+            out = new SocketBuffer(blackhole);
+        }
+    }
+
+    /** Copies what is written into a reused direct buffer, one buffer's worth at a time. */
+    public static final class SocketBuffer {
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(8 * 1024);
+        private final Blackhole blackhole;
+
+        SocketBuffer(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        void write(ByteBuffer source) {
+            while (source.hasRemaining()) {
+                int length = Math.min(buffer.capacity(), source.remaining());
+                buffer.clear();
+                buffer.put(source.slice(source.position(), length));
+                source.position(source.position() + length);
+                blackhole.consume(buffer);
+            }
+        }
+
+        void write(byte[] bytes, int offset, int length) {
+            write(ByteBuffer.wrap(bytes, offset, length));
+        }
+    }
+
+    @Benchmark
+    public void generatedBytes(Response response) {
+        for (int remaining = response.n; remaining > 0; remaining -= CHUNK_SIZE) {
+            RandomAlgorithm.SPLITTABLE.current().nextBytes(response.chunk);
+            response.out.write(response.chunk, 0, Math.min(CHUNK_SIZE, remaining));
+        }
+    }
+
+    @Benchmark
+    public void pooledBytes(Pool pool, Response response) {
+        for (ByteBuffer slice : pool.contentPool.byteSlices(response.n)) {
+            response.out.write(slice);
+        }
+    }
+
+    @Benchmark
+    public void generatedChars(Response response) {
+        for (int remaining = response.n; remaining > 0; remaining -= CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, remaining);
+            Alphabet.ALPHANUMERIC.fill(
+                    RandomAlgorithm.SPLITTABLE.current(), response.chunk, length);
+            response.out.write(response.chunk, 0, length);
+        }
+    }
+
+    @Benchmark
+    public void pooledChars(Pool pool, Response response) {
+        for (ByteBuffer slice : pool.contentPool.charSlices(response.n)) {
+            response.out.write(slice);
+        }
+    }
+}
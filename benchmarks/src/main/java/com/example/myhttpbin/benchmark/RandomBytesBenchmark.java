@@ -0,0 +1,84 @@
+package com.example.myhttpbin.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.random.RandomAlgorithm;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Payload generation throughput of each {@link RandomAlgorithm}. The {@code bytes} secondary
+ * result is bytes per second across all benchmark threads; divide by the thread count for the
+ * per-core figure.
+ *
+ * <p>{@link #main} repeats the run with 1 to 32 threads to show how each generator scales, the
+ * shared {@code secure} generator serializes every caller.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomBytesBenchmark {
+
+    @Param({"secure", "splittable", "l64x128", "counter"})
+    private String generator;
+
+    @Param({"65536"})
+    private int chunkSize;
+
+    private RandomAlgorithm algorithm;
+    private byte[] chunk;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Throughput {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        algorithm = RandomAlgorithm.fromName(generator);
+        chunk = new byte[chunkSize];
+    }
+
+    @Benchmark
+    public byte[] fillChunk(Throughput throughput) {
+        algorithm.current().nextBytes(chunk);
+        throughput.bytes += chunk.length;
+        return chunk;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 2, 4, 8, 16, 32}) {
+            Options options =
+                    new OptionsBuilder()
+                            .include(RandomBytesBenchmark.class.getSimpleName())
+                            .threads(threads)
+                            .build();
+            new Runner(options).run();
+        }
+    }
+}
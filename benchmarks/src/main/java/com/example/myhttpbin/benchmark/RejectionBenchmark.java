@@ -0,0 +1,114 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.controller.ConstantError;
+import com.example.myhttpbin.controller.PreEncodedResponses;
+import com.example.myhttpbin.dto.ErrorResponse;
+import com.example.myhttpbin.metrics.EndpointMetrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Writing a validation error, the whole cost of a rejected request past routing: a fresh {@link
+ * ErrorResponse} serialized by Jackson's message converter against the {@link
+ * PreEncodedResponses} bytes copied by the byte array converter, as Spring MVC does for each.
+ *
+ * <p>{@link #main} adds the GC profiler, {@code gc.alloc.rate.norm} is the bytes allocated per
+ * rejection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MappingJackson2HttpMessageConverter jsonConverter =
+            new MappingJackson2HttpMessageConverter(objectMapper);
+    private final ByteArrayHttpMessageConverter bytesConverter =
+            new ByteArrayHttpMessageConverter();
+    private final NullOutputMessage outputMessage = new NullOutputMessage();
+    private ResponseEntity<byte[]> preEncoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        EndpointMetrics endpointMetrics = new EndpointMetrics(new SimpleMeterRegistry());
+        preEncoded =
+                new PreEncodedResponses(objectMapper, endpointMetrics)
+                        .error(ConstantError.INVALID_BYTE_COUNT);
+    }
+
+    @Benchmark
+    public void serialized() throws IOException {
+        outputMessage.reset();
+        ErrorResponse error =
+                new ErrorResponse("Invalid size", "Number of bytes must be positive");
+        jsonConverter.write(error, MediaType.APPLICATION_JSON, outputMessage);
+    }
+
+    @Benchmark
+    public void preEncoded() throws IOException {
+        outputMessage.reset();
+        outputMessage.getHeaders().putAll(preEncoded.getHeaders());
+        bytesConverter.write(preEncoded.getBody(), MediaType.APPLICATION_JSON, outputMessage);
+    }
+
+    /** A response that keeps its headers and discards the body. */
+    private static final class NullOutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final OutputStream body = OutputStream.nullOutputStream();
+
+        void reset() {
+            headers.clear();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options =
+                new OptionsBuilder()
+                        .include(RejectionBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build();
+        new Runner(options).run();
+    }
+}
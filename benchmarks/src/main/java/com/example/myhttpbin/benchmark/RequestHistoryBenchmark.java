@@ -0,0 +1,167 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.controller.DynamicDataController;
+import com.example.myhttpbin.history.RequestHistory;
+import com.example.myhttpbin.history.RequestHistoryFilter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+
+/**
+ * Cost of recording a request in the history: a typical request with a dozen headers and an
+ * optional body read by the endpoint, passed through {@link RequestHistoryFilter} against the
+ * same request handled without it. The handler only reads the body, so the difference is the
+ * whole capture overhead. {@link #record} is the copy into the ring alone, less {@link #headers}
+ * spent by the mock request building header enumerations, which Tomcat keeps ready.
+ *
+ * <p>At 50k requests per second a request takes 20 microseconds of one core, the overhead has to
+ * stay a small fraction of that, under contention too: run with {@code -t 4} to have four threads
+ * claim slots of the same ring.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestHistoryBenchmark {
+
+    /** One history for all threads, as in the application. */
+    @State(Scope.Benchmark)
+    public static class Shared {
+
+        RequestHistory history;
+        RequestHistoryFilter filter;
+
+        @Setup
+        public void setUp() {
+            history =
+                    new RequestHistory(1024, DataSize.ofKilobytes(2), new SimpleMeterRegistry());
+            filter = new RequestHistoryFilter(history);
+        }
+    }
+
+    @Param({"0", "1024"})
+    private int bodySize;
+
+    private byte[] body;
+    private HandlerMethod handler;
+    private FilterChain chain;
+    private MockHttpServletRequest recorded;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        body = new byte[bodySize];
+        // A handler method of the controller, without creating the controller
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition(
+                "dynamicDataController", new RootBeanDefinition(DynamicDataController.class));
+        handler =
+                new HandlerMethod(
+                        "dynamicDataController",
+                        beanFactory,
+                        DynamicDataController.class.getMethod("generateUuid", int.class));
+        chain =
+                (request, response) -> {
+                    request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, handler);
+                    if (bodySize > 0) {
+                        InputStream in = request.getInputStream();
+                        in.readAllBytes();
+                    }
+                };
+        recorded = request();
+    }
+
+    /** Only the copy into the ring, from a request whose headers are already parsed. */
+    @Benchmark
+    public void record(Shared shared) {
+        shared.history.record(recorded, System.currentTimeMillis(), 200, 1_000, bodySize, -1);
+    }
+
+    /** The header enumerations alone, the part of {@link #record} that depends on the request. */
+    @Benchmark
+    public void headers(Blackhole blackhole) {
+        Enumeration<String> names = recorded.getHeaderNames();
+        while (names.hasMoreElements()) {
+            Enumeration<String> values = recorded.getHeaders(names.nextElement());
+            while (values.hasMoreElements()) {
+                blackhole.consume(values.nextElement());
+            }
+        }
+    }
+
+    @Benchmark
+    public MockHttpServletResponse withoutHistory() throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        chain.doFilter(request(), response);
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse withHistory(Shared shared)
+            throws IOException, ServletException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        shared.filter.doFilter(request(), response, chain);
+        return response;
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/base64/encode");
+        request.setQueryString("variant=url");
+        request.addHeader("Host", "localhost:8080");
+        request.addHeader("User-Agent", "ReactorNetty/1.1.13");
+        request.addHeader("Accept", "*/*");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        request.addHeader("Accept-Language", "en-US,en;q=0.9");
+        request.addHeader("Content-Type", "application/octet-stream");
+        request.addHeader("Content-Length", String.valueOf(bodySize));
+        request.addHeader("Connection", "keep-alive");
+        request.addHeader("Cache-Control", "no-cache");
+        request.addHeader("X-Request-Id", "8f14e45f-ceea-467f-a9b1-4e2c7d1f0a3b");
+        request.addHeader("X-Forwarded-For", "203.0.113.7");
+        request.addHeader("Traceparent", "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01");
+        request.setContent(body);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options =
+                new OptionsBuilder()
+                        .include(RequestHistoryBenchmark.class.getSimpleName())
+                        .addProfiler(GCProfiler.class)
+                        .build();
+        new Runner(options).run();
+    }
+}
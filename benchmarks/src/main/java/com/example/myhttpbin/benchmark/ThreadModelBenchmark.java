@@ -0,0 +1,161 @@
+package com.example.myhttpbin.benchmark;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.myhttpbin.MyhttpbinApplication;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Compares Tomcat's platform-thread pool with the virtual-thread execution mode. Each mode boots
+ * the application in-process and is driven by a fixed number of closed-loop clients that call the
+ * same endpoint back to back, reporting throughput and latency percentiles.
+ *
+ * <p>Usage: {@code ThreadModelBenchmark [clients] [durationSeconds] [path]}, defaults to 10000
+ * clients calling {@code /delay/1} for 30 seconds. The virtual-thread run needs a Java 21 build
+ * ({@code mvn -Pjava21}), older runtimes silently fall back to platform threads.
+ */
+public class ThreadModelBenchmark {
+
+    public static void main(String[] args) {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        String path = args.length > 2 ? args[2] : "/delay/1";
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println(
+                    "Running on Java "
+                            + Runtime.version().feature()
+                            + ", virtual threads are unavailable and both runs use platform"
+                            + " threads");
+        }
+
+        BenchmarkResult platform = run("platform threads", false, clients, duration, path);
+        BenchmarkResult virtual = run("virtual threads", true, clients, duration, path);
+
+        System.out.println();
+        System.out.println(platform);
+        System.out.println(virtual);
+    }
+
+    private static BenchmarkResult run(
+            String mode, boolean virtualThreads, int clients, Duration duration, String path) {
+        System.out.printf("=== %s: %d clients, %s, %s ===%n", mode, clients, path, duration);
+
+        try (ConfigurableApplicationContext context =
+                new SpringApplicationBuilder(MyhttpbinApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "spring.threads.virtual.enabled=" + virtualThreads,
+                                "server.tomcat.max-connections=" + (clients * 2),
+                                "server.tomcat.accept-count=1000",
+                                "logging.level.root=WARN")
+                        .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return drive(mode, "http://localhost:" + port + path, clients, duration);
+        }
+    }
+
+    /** Drives {@code url} with {@code clients} closed-loop clients for {@code duration}. */
+    static BenchmarkResult drive(String mode, String url, int clients, Duration duration) {
+        ConnectionProvider connectionProvider =
+                ConnectionProvider.builder("thread-model-benchmark")
+                        .maxConnections(clients)
+                        .pendingAcquireMaxCount(-1)
+                        .build();
+        WebClient webClient =
+                WebClient.builder()
+                        .clientConnector(
+                                new ReactorClientHttpConnector(
+                                        HttpClient.create(connectionProvider)))
+                        .build();
+
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+
+        try {
+            Flux.range(0, clients)
+                    .flatMap(
+                            client ->
+                                    timedRequest(webClient, url, latencies)
+                                            .doOnError(error -> errors.incrementAndGet())
+                                            .onErrorResume(error -> Mono.empty())
+                                            .repeat(() -> System.nanoTime() < deadline),
+                            clients)
+                    .blockLast();
+        } finally {
+            connectionProvider.disposeLater().block();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new BenchmarkResult(mode, sorted, errors.get(), elapsedNanos);
+    }
+
+    private static Mono<Void> timedRequest(
+            WebClient webClient, String url, Queue<Long> latencies) {
+        return Mono.defer(
+                () -> {
+                    long start = System.nanoTime();
+                    return webClient
+                            .get()
+                            .uri(url)
+                            .retrieve()
+                            .toBodilessEntity()
+                            .doOnSuccess(response -> latencies.add(System.nanoTime() - start))
+                            .then();
+                });
+    }
+
+    static class BenchmarkResult {
+        private final String mode;
+        private final long[] sortedLatencies;
+        private final long errors;
+        private final long elapsedNanos;
+
+        BenchmarkResult(String mode, long[] sortedLatencies, long errors, long elapsedNanos) {
+            this.mode = mode;
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        private double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+            return String.format(
+                    "%-16s %8d requests, %6d errors, %9.1f req/s, p50 %8.1f ms, p99 %8.1f ms,"
+                            + " max %8.1f ms",
+                    mode,
+                    sortedLatencies.length,
+                    errors,
+                    sortedLatencies.length / seconds,
+                    percentileMillis(50),
+                    percentileMillis(99),
+                    percentileMillis(100));
+        }
+    }
+}
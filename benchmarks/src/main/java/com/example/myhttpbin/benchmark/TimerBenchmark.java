@@ -0,0 +1,141 @@
+package com.example.myhttpbin.benchmark;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.myhttpbin.delay.HashedWheelTimer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of scheduling and cancelling one delayed response while {@code outstanding} other delays
+ * are pending, for the hashed wheel behind {@code DelayScheduler} and a JDK {@link
+ * ScheduledThreadPoolExecutor}, whose heap makes both operations O(log n).
+ *
+ * <p>The two do their work in different places. The JDK executor inserts into and removes from
+ * its heap on the calling thread, under its lock. The wheel only enqueues on the calling thread
+ * and leaves the bucket insert and removal to its worker. {@link #scheduleAndCancel} is the cost
+ * seen by the request thread alone, a timeout cancelled before the worker even sees it. {@link
+ * #scheduleAndCancelDrained} is the comparable figure: a batch is scheduled and, once the worker
+ * has put it in its buckets, cancelled, and the batch only completes once the worker has removed
+ * it again. The wheel ticks every 100 microseconds here, so the wait for the worker's next tick
+ * adds little to a batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class TimerBenchmark {
+
+    private static final Runnable NO_OP = () -> {};
+
+    private static final long MAX_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final int BATCH = 16 * 1024;
+
+    @Param({"10000", "100000", "1000000"})
+    private int outstanding;
+
+    @Param({"wheel", "jdk"})
+    private String scheduler;
+
+    private HashedWheelTimer wheelTimer;
+    private ScheduledThreadPoolExecutor executor;
+    private final HashedWheelTimer.Timeout[] wheelBatch = new HashedWheelTimer.Timeout[BATCH];
+    private final ScheduledFuture<?>[] jdkBatch = new ScheduledFuture<?>[BATCH];
+
+    @Setup
+    public void setUp() {
+        if ("wheel".equals(scheduler)) {
+            wheelTimer = new HashedWheelTimer("benchmark-wheel", 100, TimeUnit.MICROSECONDS, 8192);
+        } else {
+            executor = new ScheduledThreadPoolExecutor(1);
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        // Outstanding delays never fire during the run
+        for (int i = 0; i < outstanding; i++) {
+            schedule(MAX_DELAY_MILLIS + ThreadLocalRandom.current().nextLong(MAX_DELAY_MILLIS));
+        }
+        if (wheelTimer != null) {
+            awaitWorker();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (wheelTimer != null) {
+            wheelTimer.stop();
+        } else {
+            executor.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        long delayMillis = delayMillis();
+        if (wheelTimer != null) {
+            return wheelTimer.newTimeout(NO_OP, delayMillis, TimeUnit.MILLISECONDS).cancel();
+        }
+        return executor.schedule(NO_OP, delayMillis, TimeUnit.MILLISECONDS).cancel(false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int scheduleAndCancelDrained() {
+        int cancelled = 0;
+        if (wheelTimer != null) {
+            for (int i = 0; i < BATCH; i++) {
+                wheelBatch[i] = wheelTimer.newTimeout(NO_OP, delayMillis(), TimeUnit.MILLISECONDS);
+            }
+            awaitWorker();
+            for (HashedWheelTimer.Timeout timeout : wheelBatch) {
+                cancelled += timeout.cancel() ? 1 : 0;
+            }
+            awaitWorker();
+            return cancelled;
+        }
+        for (int i = 0; i < BATCH; i++) {
+            jdkBatch[i] = executor.schedule(NO_OP, delayMillis(), TimeUnit.MILLISECONDS);
+        }
+        for (ScheduledFuture<?> future : jdkBatch) {
+            cancelled += future.cancel(false) ? 1 : 0;
+        }
+        return cancelled;
+    }
+
+    private static long delayMillis() {
+        return ThreadLocalRandom.current().nextLong(TimeUnit.SECONDS.toMillis(60));
+    }
+
+    /** Waits until the worker has moved every queued timeout in or out of its bucket. */
+    private void awaitWorker() {
+        while (wheelTimer.hasQueuedTimeouts()) {
+            LockSupport.parkNanos(10_000);
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        if (wheelTimer != null) {
+            wheelTimer.newTimeout(NO_OP, delayMillis, TimeUnit.MILLISECONDS);
+        } else {
+            executor.schedule(NO_OP, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.myhttpbin.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.random.RandomAlgorithm;
+import com.example.myhttpbin.uuid.UuidBatchWriter;
+import com.example.myhttpbin.uuid.UuidFormat;
+import com.example.myhttpbin.uuid.UuidSequence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing the body of a one-million-ID {@code /uuids} request, reported in UUIDs per second: the
+ * streaming {@link UuidBatchWriter} in each format against one {@link UUID#randomUUID()} and
+ * {@code toString()} per ID.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidBatchBenchmark {
+
+    private static final int COUNT = 1_000_000;
+
+    @Param({"json", "ndjson", "text", "binary"})
+    private String format;
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void batchWriter() throws IOException {
+        UuidBatchWriter.write(
+                out,
+                UuidFormat.fromName(format),
+                COUNT,
+                UuidSequence.random(RandomAlgorithm.SPLITTABLE.current()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void randomUuidToString() throws IOException {
+        for (int i = 0; i < COUNT; i++) {
+            out.write(UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII));
+            out.write('\n');
+        }
+    }
+}
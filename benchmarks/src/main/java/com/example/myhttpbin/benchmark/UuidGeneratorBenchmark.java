@@ -0,0 +1,60 @@
+package com.example.myhttpbin.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.random.RandomAlgorithm;
+import com.example.myhttpbin.uuid.UuidV7Generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Single UUIDs as {@code /uuid} creates them: {@link UUID#randomUUID()}, which goes through the
+ * JVM-wide SecureRandom, against the {@link UuidV7Generator} with a per-thread generator.
+ *
+ * <p>{@link #main} runs with 1 and 32 threads; all threads share one v7 generator, as they do in
+ * the application, so the 32-thread run shows the cost of its compare-and-set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidGeneratorBenchmark {
+
+    private final UuidV7Generator v7Generator = new UuidV7Generator();
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID version7() {
+        return v7Generator.next(RandomAlgorithm.SPLITTABLE.current());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, 32}) {
+            Options options =
+                    new OptionsBuilder()
+                            .include(UuidGeneratorBenchmark.class.getSimpleName())
+                            .threads(threads)
+                            .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.myhttpbin.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.myhttpbin.MyhttpbinApplication;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Compares the servlet deployment on Tomcat with the reactive one on Reactor Netty under the
+ * same closed-loop load as {@link ThreadModelBenchmark}, for each number of concurrent
+ * connections. Both modes boot the application in-process.
+ *
+ * <p>Usage: {@code WebStackBenchmark [connections] [durationSeconds] [path]}, defaults to 1000,
+ * 10000 and 50000 connections calling {@code /delay/1} for 30 seconds each. Tens of thousands of
+ * connections from one machine need a matching {@code ulimit -n} and a wide ephemeral port range.
+ */
+public class WebStackBenchmark {
+
+    public static void main(String[] args) {
+        int[] connections =
+                Arrays.stream((args.length > 0 ? args[0] : "1000,10000,50000").split(","))
+                        .mapToInt(Integer::parseInt)
+                        .toArray();
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 30);
+        String path = args.length > 2 ? args[2] : "/delay/1";
+
+        List<ThreadModelBenchmark.BenchmarkResult> results = new ArrayList<>();
+        for (int clients : connections) {
+            results.add(run("servlet", clients, duration, path));
+            results.add(run("reactive", clients, duration, path));
+        }
+
+        System.out.println();
+        results.forEach(System.out::println);
+    }
+
+    private static ThreadModelBenchmark.BenchmarkResult run(
+            String webApplicationType, int clients, Duration duration, String path) {
+        String mode = webApplicationType + " " + clients;
+        System.out.printf("=== %s: %d clients, %s, %s ===%n", mode, clients, path, duration);
+
+        try (ConfigurableApplicationContext context =
+                new SpringApplicationBuilder(MyhttpbinApplication.class)
+                        .properties(
+                                "server.port=0",
+                                "spring.main.web-application-type=" + webApplicationType,
+                                "server.tomcat.max-connections=" + (clients * 2),
+                                "server.tomcat.accept-count=1000",
+                                "logging.level.root=WARN")
+                        .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return ThreadModelBenchmark.drive(
+                    mode, "http://localhost:" + port + path, clients, duration);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.myhttpbin.codec;
+
+import java.util.Base64;
+import java.util.Locale;
+
+/** The base64 alphabets and line formats of {@link Base64}. */
+public enum Base64Variant {
+    /** RFC 4648 alphabet, no line breaks. */
+    STANDARD(Base64.getEncoder(), Base64.getDecoder()),
+    /** URL and filename safe alphabet, no line breaks. */
+    URL(Base64.getUrlEncoder(), Base64.getUrlDecoder()),
+    /** MIME: lines of 76 characters separated by CRLF, other characters ignored on decoding. */
+    MIME(Base64.getMimeEncoder(), Base64.getMimeDecoder());
+
+    private final Base64.Encoder encoder;
+    private final Base64.Decoder decoder;
+
+    Base64Variant(Base64.Encoder encoder, Base64.Decoder decoder) {
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    public Base64.Encoder encoder() {
+        return encoder;
+    }
+
+    public Base64.Decoder decoder() {
+        return decoder;
+    }
+
+    public static Base64Variant fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown variant: " + name);
+        }
+    }
+}
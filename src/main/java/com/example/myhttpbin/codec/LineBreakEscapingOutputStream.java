@@ -0,0 +1,42 @@
+package com.example.myhttpbin.codec;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escapes CR and LF as {@code \r} and {@code \n}, which makes base64 output, MIME line breaks
+ * included, safe to stream into a JSON string.
+ */
+public class LineBreakEscapingOutputStream extends FilterOutputStream {
+
+    public LineBreakEscapingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (b == '\r') {
+            out.write('\\');
+            out.write('r');
+        } else if (b == '\n') {
+            out.write('\\');
+            out.write('n');
+        } else {
+            out.write(b);
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        int start = off;
+        for (int i = off, end = off + len; i < end; i++) {
+            if (b[i] == '\r' || b[i] == '\n') {
+                out.write(b, start, i - start);
+                write(b[i]);
+                start = i + 1;
+            }
+        }
+        out.write(b, start, off + len - start);
+    }
+}
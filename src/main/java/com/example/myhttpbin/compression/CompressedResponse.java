@@ -0,0 +1,127 @@
+package com.example.myhttpbin.compression;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * A response whose body is compressed on the way out, for code that writes to a servlet
+ * response. Its length is only known once compressed, so content lengths set through it are
+ * dropped and the body goes out chunked. The body must be completed with {@link #close()}.
+ */
+public final class CompressedResponse extends HttpServletResponseWrapper implements Closeable {
+
+    private final ResponseCompression compression;
+    private final ContentCoding coding;
+    private final Integer level;
+    private CompressingOutputStream compressed;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    CompressedResponse(
+            HttpServletResponse response,
+            ResponseCompression compression,
+            ContentCoding coding,
+            Integer level) {
+        super(response);
+        this.compression = compression;
+        this.coding = coding;
+        this.level = level;
+        response.setHeader(HttpHeaders.CONTENT_ENCODING, coding.token());
+    }
+
+    @Override
+    public void setContentLength(int length) {}
+
+    @Override
+    public void setContentLengthLong(long length) {}
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            compressed = compression.compress(super.getOutputStream(), coding, level);
+            outputStream = new CompressedOutputStream(compressed, super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer =
+                    new PrintWriter(
+                            new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (compressed != null) {
+            compressed.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /** Completes the compressed body, an empty one if nothing was written. */
+    @Override
+    public void close() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        getOutputStream();
+        compressed.close();
+    }
+
+    private static final class CompressedOutputStream extends ServletOutputStream {
+
+        private final CompressingOutputStream compressed;
+        private final ServletOutputStream target;
+
+        CompressedOutputStream(CompressingOutputStream compressed, ServletOutputStream target) {
+            this.compressed = compressed;
+            this.target = target;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            compressed.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            compressed.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            compressed.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            compressed.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return target.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            target.setWriteListener(listener);
+        }
+    }
+}
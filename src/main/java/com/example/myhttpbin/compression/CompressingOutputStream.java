@@ -0,0 +1,102 @@
+package com.example.myhttpbin.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compresses what is written to it with a pooled {@link Deflater} in the gzip or zlib format of
+ * its {@link ContentCoding}. {@link #flush()} flushes the compressed data written so far, so a
+ * streamed response reaches the client as it is produced.
+ *
+ * <p>Closing finishes the stream and gives the deflater back to the pool, but leaves the
+ * underlying stream open; the stream must not be used afterwards.
+ */
+public final class CompressingOutputStream extends DeflaterOutputStream {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    // Magic, deflate, no flags, no modification time, no extra flags, unknown OS
+    private static final byte[] GZIP_HEADER = {
+        0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff
+    };
+
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private final ContentCoding coding;
+    private final ResponseCompression owner;
+    private final CRC32 crc;
+    private boolean closed;
+
+    CompressingOutputStream(
+            OutputStream out, ContentCoding coding, Deflater deflater, ResponseCompression owner)
+            throws IOException {
+        super(out, deflater, BUFFER_SIZE, true);
+        this.coding = coding;
+        this.owner = owner;
+        if (coding == ContentCoding.GZIP) {
+            this.crc = new CRC32();
+            out.write(GZIP_HEADER);
+        } else {
+            this.crc = null;
+        }
+    }
+
+    public ContentCoding coding() {
+        return coding;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        super.write(bytes, offset, length);
+        if (crc != null) {
+            crc.update(bytes, offset, length);
+        }
+    }
+
+    /** Writes the remaining compressed data and the gzip trailer, if any. */
+    @Override
+    public void finish() throws IOException {
+        if (def.finished()) {
+            return;
+        }
+        super.finish();
+        if (crc != null) {
+            writeIntLittleEndian(crc.getValue());
+            // The size modulo 2^32
+            writeIntLittleEndian(def.getBytesRead());
+        }
+    }
+
+    /** Bytes written to the underlying stream so far, headers and trailers included. */
+    long compressedSize() {
+        long size = def.getBytesWritten();
+        if (crc != null) {
+            size += GZIP_HEADER.length + (def.finished() ? GZIP_TRAILER_SIZE : 0);
+        }
+        return size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+            out.flush();
+        } finally {
+            owner.release(this, def);
+        }
+    }
+
+    private void writeIntLittleEndian(long value) throws IOException {
+        out.write((int) value);
+        out.write((int) (value >> 8));
+        out.write((int) (value >> 16));
+        out.write((int) (value >> 24));
+    }
+}
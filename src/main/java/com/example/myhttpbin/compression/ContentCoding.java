@@ -0,0 +1,92 @@
+package com.example.myhttpbin.compression;
+
+import java.util.Locale;
+
+/** The content codings responses are compressed with, both on zlib's deflate. */
+public enum ContentCoding {
+    GZIP("gzip", "gzipped", true),
+    DEFLATE("deflate", "deflated", false);
+
+    private final String token;
+    private final String echoField;
+    private final boolean nowrap;
+
+    ContentCoding(String token, String echoField, boolean nowrap) {
+        this.token = token;
+        this.echoField = echoField;
+        this.nowrap = nowrap;
+    }
+
+    /** The name of the coding in {@code Accept-Encoding} and {@code Content-Encoding}. */
+    public String token() {
+        return token;
+    }
+
+    /** The field httpbin sets to {@code true} in the echo of its endpoint for the coding. */
+    public String echoField() {
+        return echoField;
+    }
+
+    /**
+     * Whether the deflate stream is raw: gzip adds its own header and trailer, the HTTP {@code
+     * deflate} coding is the zlib format.
+     */
+    boolean nowrap() {
+        return nowrap;
+    }
+
+    /**
+     * The coding the client prefers among those of {@code Accept-Encoding}, by quality value,
+     * gzip on a tie. A {@code *} stands for the codings not listed, and {@code q=0} excludes one.
+     *
+     * @return {@code null} if the header is missing or accepts neither coding
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        double[] qualities = {-1, -1};
+        double wildcard = -1;
+        for (String element : acceptEncoding.split(",")) {
+            int semicolon = element.indexOf(';');
+            String coding =
+                    (semicolon < 0 ? element : element.substring(0, semicolon))
+                            .trim()
+                            .toLowerCase(Locale.ROOT);
+            double quality = semicolon < 0 ? 1 : quality(element.substring(semicolon + 1));
+            switch (coding) {
+                case "gzip", "x-gzip" -> qualities[GZIP.ordinal()] = quality;
+                case "deflate" -> qualities[DEFLATE.ordinal()] = quality;
+                case "*" -> wildcard = quality;
+                default -> {}
+            }
+        }
+        ContentCoding preferred = null;
+        double best = 0;
+        for (ContentCoding coding : values()) {
+            double quality =
+                    qualities[coding.ordinal()] >= 0 ? qualities[coding.ordinal()] : wildcard;
+            if (quality > best) {
+                preferred = coding;
+                best = quality;
+            }
+        }
+        return preferred;
+    }
+
+    /** The {@code q} of the parameters of an element, 0 if it is malformed. */
+    private static double quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.length() > 2 && (trimmed.startsWith("q=") || trimmed.startsWith("Q="))) {
+                try {
+                    double quality = Double.parseDouble(trimmed.substring(2));
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
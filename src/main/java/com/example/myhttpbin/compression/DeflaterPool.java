@@ -0,0 +1,57 @@
+package com.example.myhttpbin.compression;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * Idle {@link Deflater}s per coding, so a response does not pay for allocating and initializing
+ * zlib's native state, some 256KB, and for freeing it again. At most {@code capacity} idle
+ * deflaters are kept per coding; under more concurrency the extra ones are created and ended as
+ * before.
+ */
+final class DeflaterPool {
+
+    private final Map<ContentCoding, BlockingQueue<Deflater>> idle =
+            new EnumMap<>(ContentCoding.class);
+    private final LongAdder created = new LongAdder();
+    private final int capacity;
+
+    DeflaterPool(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Pool capacity must not be negative: " + capacity);
+        }
+        for (ContentCoding coding : ContentCoding.values()) {
+            idle.put(coding, new ArrayBlockingQueue<>(Math.max(capacity, 1)));
+        }
+        this.capacity = capacity;
+    }
+
+    /** An idle deflater of {@code coding} set to {@code level}, or a new one. */
+    Deflater acquire(ContentCoding coding, int level) {
+        Deflater deflater = idle.get(coding).poll();
+        if (deflater == null) {
+            created.increment();
+            return new Deflater(level, coding.nowrap());
+        }
+        // Applied by the first deflate of the new stream
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    /** Resets {@code deflater} for the next stream, or frees it if the pool is full. */
+    void release(ContentCoding coding, Deflater deflater) {
+        deflater.reset();
+        if (capacity == 0 || !idle.get(coding).offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    /** Deflaters created since startup, each one a native zlib setup. */
+    long created() {
+        return created.sum();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.myhttpbin.compression;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compressed bodies of payloads that never change, least recently used evicted first once the
+ * bodies add up to more than {@code maxSize} bytes. Lookups hold the lock for a map access only;
+ * payloads are compressed outside of it, so two requests missing the same key at once both
+ * compress it.
+ */
+final class PrecompressedCache {
+
+    private final long maxSize;
+    private final Map<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    PrecompressedCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    synchronized byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, byte[] body) {
+        if (body.length > maxSize) {
+            return;
+        }
+        byte[] previous = entries.put(key, body);
+        size += body.length - (previous == null ? 0 : previous.length);
+        for (Iterator<byte[]> eldest = entries.values().iterator(); size > maxSize; ) {
+            size -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.myhttpbin.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compression of response bodies in the coding negotiated with {@code Accept-Encoding}. Bodies
+ * below {@code myhttpbin.compression.min-size} are sent as they are, the framing would outweigh
+ * the savings.
+ *
+ * <p>Generated bodies are compressed as they are written, at {@code myhttpbin.compression.level}
+ * unless the request selects another. Compressible payloads that never change are compressed
+ * once at {@code myhttpbin.compression.precompressed-level}, a level worth its cost when it is
+ * paid once, and kept in a cache of {@code myhttpbin.compression.cache.size} bytes when they are
+ * at most {@code myhttpbin.compression.cache.max-entry-size}. Deflaters come from a pool of
+ * {@code myhttpbin.compression.pool-size} per coding.
+ *
+ * <p>The bytes in and out of compression are counted per coding, their difference is the
+ * bandwidth saved.
+ */
+@Component
+public class ResponseCompression {
+
+    private final int level;
+    private final int precompressedLevel;
+    private final long minSize;
+    private final long maxCachedSize;
+    private final DeflaterPool deflaters;
+    private final PrecompressedCache cache;
+    private final Map<ContentCoding, LongAdder> input = new EnumMap<>(ContentCoding.class);
+    private final Map<ContentCoding, LongAdder> output = new EnumMap<>(ContentCoding.class);
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
+    public ResponseCompression(
+            @Value("${myhttpbin.compression.level:1}") int level,
+            @Value("${myhttpbin.compression.precompressed-level:9}") int precompressedLevel,
+            @Value("${myhttpbin.compression.min-size:1KB}") DataSize minSize,
+            @Value("${myhttpbin.compression.pool-size:32}") int poolSize,
+            @Value("${myhttpbin.compression.cache.size:32MB}") DataSize cacheSize,
+            @Value("${myhttpbin.compression.cache.max-entry-size:1MB}") DataSize maxEntrySize,
+            MeterRegistry meterRegistry) {
+        if (!isLevel(level)) {
+            throw new IllegalArgumentException(
+                    "myhttpbin.compression.level out of range: " + level);
+        }
+        if (!isLevel(precompressedLevel)) {
+            throw new IllegalArgumentException(
+                    "myhttpbin.compression.precompressed-level out of range: "
+                            + precompressedLevel);
+        }
+        this.level = level;
+        this.precompressedLevel = precompressedLevel;
+        this.minSize = minSize.toBytes();
+        this.maxCachedSize = maxEntrySize.toBytes();
+        this.deflaters = new DeflaterPool(poolSize);
+        this.cache = new PrecompressedCache(cacheSize.toBytes());
+
+        for (ContentCoding coding : ContentCoding.values()) {
+            LongAdder in = new LongAdder();
+            LongAdder out = new LongAdder();
+            input.put(coding, in);
+            output.put(coding, out);
+            FunctionCounter.builder("myhttpbin.compression.input", in, LongAdder::sum)
+                    .baseUnit("bytes")
+                    .description("Response bytes before compression")
+                    .tag("encoding", coding.token())
+                    .register(meterRegistry);
+            FunctionCounter.builder("myhttpbin.compression.output", out, LongAdder::sum)
+                    .baseUnit("bytes")
+                    .description("Compressed response bytes sent")
+                    .tag("encoding", coding.token())
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder(
+                        "myhttpbin.compression.deflaters.created",
+                        deflaters,
+                        DeflaterPool::created)
+                .description("Deflaters created, the ones taken from the pool are not")
+                .register(meterRegistry);
+        FunctionCounter.builder("myhttpbin.compression.cache.hits", cacheHits, LongAdder::sum)
+                .description("Precompressed payloads served from the cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("myhttpbin.compression.cache.misses", cacheMisses, LongAdder::sum)
+                .description("Precompressed payloads compressed on request")
+                .register(meterRegistry);
+        Gauge.builder("myhttpbin.compression.cache.size", cache, PrecompressedCache::size)
+                .baseUnit("bytes")
+                .description("Compressed payloads held by the cache")
+                .register(meterRegistry);
+    }
+
+    private static boolean isLevel(int level) {
+        return level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION;
+    }
+
+    /**
+     * Checks a compression level selected by a request.
+     *
+     * @param level {@code null} for the default
+     * @throws IllegalArgumentException if it is not a zlib level
+     */
+    public void checkLevel(Integer level) {
+        if (level != null && !isLevel(level)) {
+            throw new IllegalArgumentException("Compression level must be between 0 and 9");
+        }
+    }
+
+    /** The level of precompressed payloads, {@code level} or the default. */
+    public int precompressedLevel(Integer level) {
+        return level == null ? precompressedLevel : level;
+    }
+
+    /**
+     * The coding to send a body of {@code length} bytes in, given the request's {@code
+     * Accept-Encoding}. Adds {@code Vary: Accept-Encoding} to the response if the body could be
+     * compressed, whether or not it will be.
+     *
+     * @return {@code null} to send the body as it is
+     */
+    public ContentCoding negotiate(
+            HttpServletRequest request, HttpServletResponse response, long length) {
+        if (length < minSize) {
+            return null;
+        }
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /**
+     * A stream compressing to {@code out} at {@code level}, or the default level if {@code null}.
+     */
+    public CompressingOutputStream compress(OutputStream out, ContentCoding coding, Integer level)
+            throws IOException {
+        Deflater deflater = deflaters.acquire(coding, level == null ? this.level : level);
+        try {
+            return new CompressingOutputStream(out, coding, deflater, this);
+        } catch (IOException | RuntimeException e) {
+            deflaters.release(coding, deflater);
+            throw e;
+        }
+    }
+
+    /**
+     * {@code response} with {@code Content-Encoding} set and its body compressed at {@code
+     * level}, or the default level if {@code null}.
+     */
+    public CompressedResponse wrap(
+            HttpServletResponse response, ContentCoding coding, Integer level) {
+        return new CompressedResponse(response, this, coding, level);
+    }
+
+    /** Whether a payload of {@code length} bytes is kept by {@link #precompressed}. */
+    public boolean isCacheable(long length) {
+        return length <= maxCachedSize;
+    }
+
+    /**
+     * {@code payload} compressed at {@code level}, from the cache if it was compressed before.
+     *
+     * @param key identifies the content of {@code payload}, which must never change
+     */
+    public byte[] precompressed(String key, Resource payload, ContentCoding coding, int level)
+            throws IOException {
+        String cacheKey = key + ' ' + coding.token() + ' ' + level;
+        byte[] body = cache.get(cacheKey);
+        if (body != null) {
+            cacheHits.increment();
+            input.get(coding).add(payload.contentLength());
+            output.get(coding).add(body.length);
+            return body;
+        }
+        cacheMisses.increment();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream in = payload.getInputStream();
+                CompressingOutputStream out = compress(buffer, coding, level)) {
+            in.transferTo(out);
+        }
+        body = buffer.toByteArray();
+        cache.put(cacheKey, body);
+        return body;
+    }
+
+    /** Counts the bytes of a completed stream and pools its deflater. */
+    void release(CompressingOutputStream stream, Deflater deflater) {
+        input.get(stream.coding()).add(deflater.getBytesRead());
+        output.get(stream.coding()).add(stream.compressedSize());
+        deflaters.release(stream.coding(), deflater);
+    }
+}
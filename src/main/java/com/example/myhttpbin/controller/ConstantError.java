@@ -0,0 +1,40 @@
+package com.example.myhttpbin.controller;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Error responses whose body never changes, served pre-encoded by {@link PreEncodedResponses}.
+ * Errors that carry details of the request, such as the message of a parse failure, are still
+ * serialized per request.
+ */
+public enum ConstantError {
+    INVALID_COUNT("Invalid count", "Count must be between 1 and 100000000"),
+    INVALID_BASE64("Invalid Base64", "The provided value is not valid Base64"),
+    DELAY_TOO_LONG("Delay too long", "Maximum delay is 60 seconds"),
+    INVALID_BYTE_COUNT("Invalid size", "Number of bytes must be positive"),
+    INVALID_CHAR_COUNT("Invalid size", "Number of characters must be positive"),
+    SIZE_ABOVE_1MB("Size too large", "Maximum size is 1MB"),
+    SIZE_ABOVE_64GB("Size too large", "Maximum size is 64GB"),
+    INVALID_CHUNK_SIZE("Invalid chunk size", "Chunk size must be between 1 and 1MB"),
+    INVALID_UUID_VERSION("Invalid version", "Supported UUID versions are 4 and 7");
+
+    private final String error;
+    private final String message;
+
+    ConstantError(String error, String message) {
+        this.error = error;
+        this.message = message;
+    }
+
+    public String error() {
+        return error;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public HttpStatus status() {
+        return HttpStatus.BAD_REQUEST;
+    }
+}
@@ -1,42 +1,196 @@
 package com.example.myhttpbin.controller;
 
-import java.security.SecureRandom;
-import java.util.Arrays;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+import java.util.random.RandomGenerator;
 
+import com.example.myhttpbin.codec.Base64Variant;
+import com.example.myhttpbin.codec.LineBreakEscapingOutputStream;
+import com.example.myhttpbin.compression.CompressedResponse;
+import com.example.myhttpbin.compression.ContentCoding;
+import com.example.myhttpbin.compression.ResponseCompression;
+import com.example.myhttpbin.delay.DelayScheduler;
+import com.example.myhttpbin.delay.DelaySpec;
+import com.example.myhttpbin.delay.HashedWheelTimer;
 import com.example.myhttpbin.dto.Base64Response;
 import com.example.myhttpbin.dto.ErrorResponse;
 import com.example.myhttpbin.dto.UuidResponse;
+import com.example.myhttpbin.echo.BodyCapture;
+import com.example.myhttpbin.echo.CapturedBody;
+import com.example.myhttpbin.echo.EchoResponse;
+import com.example.myhttpbin.echo.JsonBodyParser;
+import com.example.myhttpbin.metrics.EndpointMetrics;
+import com.example.myhttpbin.metrics.EndpointMetrics.PayloadEndpoint;
+import com.example.myhttpbin.payload.DeterministicPayload;
+import com.example.myhttpbin.payload.FilePayloadStore;
+import com.example.myhttpbin.payload.PayloadMetrics;
+import com.example.myhttpbin.payload.PayloadSource;
+import com.example.myhttpbin.payload.RandomContentPool;
+import com.example.myhttpbin.random.Alphabet;
+import com.example.myhttpbin.random.RandomGenerators;
+import com.example.myhttpbin.uuid.UuidBatchWriter;
+import com.example.myhttpbin.uuid.UuidFormat;
+import com.example.myhttpbin.uuid.UuidSequence;
+import com.example.myhttpbin.uuid.UuidV7Generator;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
 @RequestMapping("/")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class DynamicDataController {
 
-    private final SecureRandom random = new SecureRandom();
+    private static final double MAX_DELAY_SECONDS = 60;
+
+    // Extra time on top of the requested delay before the async request is timed out
+    private static final long DELAY_TIMEOUT_GRACE_MILLIS = 5_000;
+
+    private static final long MAX_STREAM_BYTES = 64L * 1024 * 1024 * 1024;
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+    private static final long MAX_UUIDS = 100_000_000;
+
+    private static final byte[] ENCODED_ENVELOPE_START =
+            "{\"encoded\":\"".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] ENCODED_ENVELOPE_END = "\"}".getBytes(StandardCharsets.US_ASCII);
+
+    private final DelayScheduler delayScheduler;
+
+    private final RandomGenerators randomGenerators;
+
+    private final RandomContentPool contentPool;
+
+    private final FilePayloadStore filePayloads;
+
+    private final PayloadMetrics payloadMetrics;
+
+    private final UuidV7Generator uuidV7Generator;
+
+    private final ObjectMapper objectMapper;
+
+    private final JsonBodyParser jsonBodyParser;
+
+    private final BodyCapture bodyCapture;
+
+    private final PreEncodedResponses preEncoded;
+
+    private final EndpointMetrics endpointMetrics;
+
+    private final ResponseCompression compression;
+
+    private final PayloadSource defaultSource;
+
+    public DynamicDataController(
+            DelayScheduler delayScheduler,
+            RandomGenerators randomGenerators,
+            RandomContentPool contentPool,
+            FilePayloadStore filePayloads,
+            PayloadMetrics payloadMetrics,
+            UuidV7Generator uuidV7Generator,
+            ObjectMapper objectMapper,
+            JsonBodyParser jsonBodyParser,
+            BodyCapture bodyCapture,
+            PreEncodedResponses preEncoded,
+            EndpointMetrics endpointMetrics,
+            ResponseCompression compression,
+            @Value("${myhttpbin.payload.source:generate}") String defaultSource) {
+        this.delayScheduler = delayScheduler;
+        this.randomGenerators = randomGenerators;
+        this.contentPool = contentPool;
+        this.filePayloads = filePayloads;
+        this.payloadMetrics = payloadMetrics;
+        this.uuidV7Generator = uuidV7Generator;
+        this.objectMapper = objectMapper;
+        this.jsonBodyParser = jsonBodyParser;
+        this.bodyCapture = bodyCapture;
+        this.preEncoded = preEncoded;
+        this.endpointMetrics = endpointMetrics;
+        this.compression = compression;
+        this.defaultSource = PayloadSource.fromName(defaultSource);
+    }
 
     @GetMapping("/uuid")
-    public ResponseEntity<UuidResponse> generateUuid() {
-        String uuid = UUID.randomUUID().toString();
-        return ResponseEntity.ok(new UuidResponse(uuid));
+    public ResponseEntity<?> generateUuid(@RequestParam(defaultValue = "4") int version) {
+        if (version != 4 && version != 7) {
+            return unsupportedUuidVersion();
+        }
+        UUID uuid =
+                version == 7
+                        ? uuidV7Generator.next(randomGenerators.select(null))
+                        : UUID.randomUUID();
+        return ResponseEntity.ok(new UuidResponse(uuid.toString()));
+    }
+
+    @GetMapping("/uuids")
+    public ResponseEntity<?> generateUuids(
+            @RequestParam(defaultValue = "1") long count,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam(defaultValue = "4") int version,
+            @RequestParam(required = false) String generator,
+            HttpServletResponse response)
+            throws IOException {
+        if (count <= 0 || count > MAX_UUIDS) {
+            return preEncoded.error(ConstantError.INVALID_COUNT);
+        }
+
+        if (version != 4 && version != 7) {
+            return unsupportedUuidVersion();
+        }
+
+        UuidFormat uuidFormat;
+        RandomGenerator random;
+        try {
+            uuidFormat = UuidFormat.fromName(format);
+            random = randomGenerators.select(generator);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+
+        response.setContentType(uuidFormat.contentType().toString());
+        response.setContentLengthLong(uuidFormat.contentLength(count));
+        UuidSequence sequence =
+                version == 7
+                        ? uuidV7Generator.sequence(count, random)
+                        : UuidSequence.random(random);
+        UuidBatchWriter.write(response.getOutputStream(), uuidFormat, count, sequence);
+
+        // The body has been written to the response already
+        return null;
     }
 
     @GetMapping("/base64/{value}")
@@ -46,145 +200,600 @@ public class DynamicDataController {
             String decoded = new String(decodedBytes);
             return ResponseEntity.ok(new Base64Response(decoded));
         } catch (IllegalArgumentException e) {
+            return preEncoded.error(ConstantError.INVALID_BASE64);
+        }
+    }
+
+    @PostMapping("/base64/encode")
+    public ResponseEntity<?> encodeBase64(
+            @RequestParam(defaultValue = "standard") String variant,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        Base64Variant base64;
+        try {
+            base64 = Base64Variant.fromName(variant);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (acceptsJsonEnvelope(request)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            out.write(ENCODED_ENVELOPE_START);
+            // Base64 output only needs escaping for the line breaks of the MIME variant
+            try (OutputStream encoder =
+                    base64.encoder()
+                            .wrap(
+                                    new LineBreakEscapingOutputStream(
+                                            StreamUtils.nonClosing(out)))) {
+                request.getInputStream().transferTo(encoder);
+            }
+            out.write(ENCODED_ENVELOPE_END);
+        } else {
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            // Closing the encoder writes the final padding, but must not close the response
+            try (OutputStream encoder = base64.encoder().wrap(StreamUtils.nonClosing(out))) {
+                request.getInputStream().transferTo(encoder);
+            }
+        }
+        out.flush();
+
+        // The body has been written to the response already
+        return null;
+    }
+
+    @PostMapping("/base64/decode")
+    public ResponseEntity<?> decodeBase64Body(
+            @RequestParam(defaultValue = "standard") String variant,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        Base64Variant base64;
+        try {
+            base64 = Base64Variant.fromName(variant);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+
+        InputStream decoded = base64.decoder().wrap(request.getInputStream());
+        OutputStream out = response.getOutputStream();
+        try {
+            if (acceptsJsonEnvelope(request)) {
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                try (JsonGenerator generator =
+                        objectMapper.getFactory().createGenerator(StreamUtils.nonClosing(out))) {
+                    generator.writeStartObject();
+                    generator.writeFieldName("decoded");
+                    // Escaped and written chunk by chunk, the text is never held as a whole
+                    generator.writeString(
+                            new InputStreamReader(decoded, StandardCharsets.UTF_8), -1);
+                    generator.writeEndObject();
+                }
+            } else {
+                response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+                decoded.transferTo(out);
+            }
+        } catch (IOException e) {
+            // Invalid input found after part of the body was sent cannot be reported anymore
+            if (response.isCommitted()) {
+                throw e;
+            }
+            response.reset();
             return ResponseEntity.badRequest()
-                    .body(
-                            new ErrorResponse(
-                                    "Invalid Base64", "The provided value is not valid Base64"));
+                    .body(endpointMetrics.rejection("Invalid Base64", e.getMessage()));
+        }
+        out.flush();
+
+        // The body has been written to the response already
+        return null;
+    }
+
+    /**
+     * Whether the client asked for JSON rather than the raw result. Without an explicit {@code
+     * application/json} in {@code Accept} the raw bytes are sent.
+     */
+    private static boolean acceptsJsonEnvelope(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (IllegalArgumentException e) {
+            return false;
         }
+        return acceptedTypes.stream()
+                .anyMatch(
+                        type ->
+                                !type.isWildcardType()
+                                        && !type.isWildcardSubtype()
+                                        && type.isCompatibleWith(MediaType.APPLICATION_JSON));
     }
 
     @GetMapping("/delay/{seconds}")
-    public ResponseEntity<?> delayGetResponse(
-            @PathVariable int seconds, HttpServletRequest request) {
-        return handleDelayRequest(seconds, request, "GET", null);
+    public DeferredResult<ResponseEntity<?>> delayGetResponse(
+            @PathVariable double seconds, HttpServletRequest request) throws IOException {
+        return handleDelayRequest(seconds, request, "GET", false);
     }
 
     @PostMapping("/delay/{seconds}")
-    public ResponseEntity<?> delayPostResponse(
-            @PathVariable int seconds,
-            HttpServletRequest request,
-            @RequestBody(required = false) String body) {
-        return handleDelayRequest(seconds, request, "POST", body);
+    public DeferredResult<ResponseEntity<?>> delayPostResponse(
+            @PathVariable double seconds, HttpServletRequest request) throws IOException {
+        return handleDelayRequest(seconds, request, "POST", true);
     }
 
     @PutMapping("/delay/{seconds}")
-    public ResponseEntity<?> delayPutResponse(
-            @PathVariable int seconds,
-            HttpServletRequest request,
-            @RequestBody(required = false) String body) {
-        return handleDelayRequest(seconds, request, "PUT", body);
+    public DeferredResult<ResponseEntity<?>> delayPutResponse(
+            @PathVariable double seconds, HttpServletRequest request) throws IOException {
+        return handleDelayRequest(seconds, request, "PUT", true);
     }
 
     @DeleteMapping("/delay/{seconds}")
-    public ResponseEntity<?> delayDeleteResponse(
-            @PathVariable int seconds, HttpServletRequest request) {
-        return handleDelayRequest(seconds, request, "DELETE", null);
+    public DeferredResult<ResponseEntity<?>> delayDeleteResponse(
+            @PathVariable double seconds, HttpServletRequest request) throws IOException {
+        return handleDelayRequest(seconds, request, "DELETE", false);
     }
 
-    private ResponseEntity<?> handleDelayRequest(
-            int seconds, HttpServletRequest request, String method, String body) {
-        if (seconds > 60) {
-            return ResponseEntity.badRequest()
-                    .body(new ErrorResponse("Delay too long", "Maximum delay is 60 seconds"));
+    private DeferredResult<ResponseEntity<?>> handleDelayRequest(
+            double seconds, HttpServletRequest request, String method, boolean readBody)
+            throws IOException {
+        if (seconds > MAX_DELAY_SECONDS) {
+            return completed(preEncoded.error(ConstantError.DELAY_TOO_LONG));
         }
 
+        DelaySpec delaySpec;
         try {
-            TimeUnit.SECONDS.sleep(seconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(new ErrorResponse("Interrupted", "Request was interrupted"));
+            delaySpec = DelaySpec.parse(seconds, request::getParameter);
+        } catch (IllegalArgumentException e) {
+            return completed(
+                    ResponseEntity.badRequest()
+                            .body(endpointMetrics.rejection("Invalid delay", e.getMessage())));
         }
+        long delayMillis = delaySpec.sampleMillis(MAX_DELAY_SECONDS);
+
+        // Read only once the delay is known to be valid, large bodies go to a spill file
+        CapturedBody body = readBody ? bodyCapture.capture(request) : null;
+        // Written from the request when the timer fires, the async request keeps it alive
+        EchoResponse echo =
+                EchoResponse.of(request, method, body, jsonBodyParser)
+                        .withDelay(delayMillis / 1000.0);
 
-        Map<String, Object> args = new HashMap<>();
-        request.getParameterMap()
-                .forEach(
-                        (key, values) -> {
-                            if (values.length == 1) {
-                                args.put(key, values[0]);
-                            } else {
-                                args.put(key, Arrays.asList(values));
-                            }
-                        });
+        DeferredResult<ResponseEntity<?>> result =
+                new DeferredResult<>(delayMillis + DELAY_TIMEOUT_GRACE_MILLIS);
+        HashedWheelTimer.Timeout pending =
+                delayScheduler.schedule(
+                        () -> result.setResult(ResponseEntity.ok(echo)),
+                        delayMillis,
+                        TimeUnit.MILLISECONDS);
+        // Free the timer slot early when the client goes away or the request times out, and
+        // the spill file once the echo has been written
+        result.onCompletion(
+                () -> {
+                    pending.cancel();
+                    if (body != null) {
+                        body.close();
+                    }
+                });
+        return result;
+    }
+
+    private static DeferredResult<ResponseEntity<?>> completed(ResponseEntity<?> response) {
+        DeferredResult<ResponseEntity<?>> result = new DeferredResult<>();
+        result.setResult(response);
+        return result;
+    }
 
-        Map<String, String> headers = new HashMap<>();
-        Collections.list(request.getHeaderNames())
-                .forEach(headerName -> headers.put(headerName, request.getHeader(headerName)));
+    @GetMapping("/gzip")
+    public ResponseEntity<?> gzipResponse(
+            @RequestParam(required = false) Integer level,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        return compressedEcho(ContentCoding.GZIP, level, request, response);
+    }
 
-        String origin = request.getRemoteAddr();
-        String url = request.getRequestURL().toString();
-        if (request.getQueryString() != null) {
-            url += "?" + request.getQueryString();
+    @GetMapping("/deflate")
+    public ResponseEntity<?> deflateResponse(
+            @RequestParam(required = false) Integer level,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        return compressedEcho(ContentCoding.DEFLATE, level, request, response);
+    }
+
+    /**
+     * The echo of the request flagged with the coding, compressed whatever the request's {@code
+     * Accept-Encoding}, like httpbin's.
+     */
+    private ResponseEntity<?> compressedEcho(
+            ContentCoding coding,
+            Integer level,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        try {
+            compression.checkLevel(level);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+
+        EchoResponse echo =
+                EchoResponse.of(request, request.getMethod(), null, jsonBodyParser)
+                        .withFlag(coding.echoField());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (CompressedResponse compressed = compression.wrap(response, coding, level)) {
+            objectMapper.writeValue(compressed.getOutputStream(), echo);
         }
 
-        // Create enhanced response that includes HTTP method and body info
-        Map<String, Object> responseData = new HashMap<>();
-        responseData.put("args", args);
-        responseData.put("headers", headers);
-        responseData.put("origin", origin);
-        responseData.put("url", url);
-        responseData.put("method", method);
+        // The body has been written to the response already
+        return null;
+    }
 
-        if (body != null && !body.trim().isEmpty()) {
-            responseData.put("data", body);
-            responseData.put("json", parseJsonSafely(body));
+    @GetMapping("/bytes/{n}")
+    public ResponseEntity<?> generateBytes(
+            @PathVariable int n,
+            @RequestParam(required = false) String generator,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(required = false) Integer level,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        if (n <= 0) {
+            return preEncoded.error(ConstantError.INVALID_BYTE_COUNT);
+        }
+
+        if (n > 1 * 1024 * 1024) {
+            return preEncoded.error(ConstantError.SIZE_ABOVE_1MB);
+        }
+
+        try {
+            compression.checkLevel(level);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
         }
 
-        return ResponseEntity.ok(responseData);
+        // Seeded bytes are reproducible, so they can be served in ranges. Random, they barely
+        // compress: a precompressed copy would only take cache space from /range
+        if (seed != null) {
+            endpointMetrics.recordResponseBytes(PayloadEndpoint.BYTES, n);
+            return servePayload(
+                    DeterministicPayload.seeded(seed, n),
+                    "\"bytes-" + seed + "-" + n + "\"",
+                    false,
+                    level,
+                    request,
+                    response);
+        }
+
+        PayloadSource payloadSource;
+        RandomGenerator random;
+        try {
+            payloadSource = resolveSource(source);
+            random = randomGenerators.select(generator);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        // A single chunk, the whole payload is generated at once. The file is handed to the
+        // connector as it is, never compressed.
+        if (payloadSource == PayloadSource.FILE) {
+            writeRandomBytes(payloadSource, random, n, n, request, response);
+        } else {
+            writeNegotiated(
+                    request,
+                    response,
+                    n,
+                    level,
+                    target -> writeRandomBytes(payloadSource, random, n, n, request, target));
+        }
+        endpointMetrics.recordResponseBytes(PayloadEndpoint.BYTES, n);
+
+        // The body has been written to the response already
+        return null;
     }
 
-    private Object parseJsonSafely(String body) {
+    @GetMapping("/stream-bytes/{n}")
+    public ResponseEntity<?> streamBytes(
+            @PathVariable long n,
+            @RequestParam(name = "chunk_size", defaultValue = "65536") int chunkSize,
+            @RequestParam(required = false) String generator,
+            @RequestParam(required = false) String source,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        if (n <= 0) {
+            return preEncoded.error(ConstantError.INVALID_BYTE_COUNT);
+        }
+
+        if (n > MAX_STREAM_BYTES) {
+            return preEncoded.error(ConstantError.SIZE_ABOVE_64GB);
+        }
+
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            return preEncoded.error(ConstantError.INVALID_CHUNK_SIZE);
+        }
+
+        PayloadSource payloadSource;
+        RandomGenerator random;
         try {
-            // Simple JSON parsing - just return as string for now
-            // In a real implementation, you might use ObjectMapper to parse JSON
-            return body.trim().startsWith("{") || body.trim().startsWith("[") ? body : null;
-        } catch (Exception e) {
-            return null;
+            payloadSource = resolveSource(source);
+            random = randomGenerators.select(generator);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
         }
+
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        writeRandomBytes(payloadSource, random, n, chunkSize, request, response);
+        endpointMetrics.recordResponseBytes(PayloadEndpoint.STREAM_BYTES, n);
+
+        // The body has been written to the response already
+        return null;
     }
 
-    @GetMapping("/bytes/{n}")
-    public ResponseEntity<?> generateBytes(@PathVariable int n) {
+    @GetMapping("/range/{n}")
+    public ResponseEntity<?> rangeRequest(
+            @PathVariable long n,
+            @RequestParam(required = false) Integer level,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
         if (n <= 0) {
-            return ResponseEntity.badRequest()
-                    .body(new ErrorResponse("Invalid size", "Number of bytes must be positive"));
+            return preEncoded.error(ConstantError.INVALID_BYTE_COUNT);
         }
 
-        if (n > 1 * 1024 * 1024) {
-            return ResponseEntity.badRequest()
-                    .body(new ErrorResponse("Size too large", "Maximum size is 100KB"));
+        if (n > MAX_STREAM_BYTES) {
+            return preEncoded.error(ConstantError.SIZE_ABOVE_64GB);
         }
 
-        byte[] randomBytes = new byte[n];
-        random.nextBytes(randomBytes);
+        try {
+            compression.checkLevel(level);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(randomBytes);
+        return servePayload(
+                DeterministicPayload.letters(n),
+                "\"range-" + n + "\"",
+                true,
+                level,
+                request,
+                response);
     }
 
     @GetMapping("/chars/{n}")
-    public ResponseEntity<?> generateChars(@PathVariable int n) {
+    public ResponseEntity<?> generateChars(
+            @PathVariable int n,
+            @RequestParam(required = false) String generator,
+            @RequestParam(required = false) String alphabet,
+            @RequestParam(required = false) String source,
+            @RequestParam(required = false) Integer level,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
         if (n <= 0) {
-            return ResponseEntity.badRequest()
-                    .body(
-                            new ErrorResponse(
-                                    "Invalid size", "Number of characters must be positive"));
+            return preEncoded.error(ConstantError.INVALID_CHAR_COUNT);
         }
 
         if (n > 1 * 1024 * 1024) {
-            return ResponseEntity.badRequest()
-                    .body(new ErrorResponse("Size too large", "Maximum size is 100KB"));
+            return preEncoded.error(ConstantError.SIZE_ABOVE_1MB);
+        }
+
+        PayloadSource payloadSource;
+        RandomGenerator random;
+        Alphabet characters;
+        try {
+            payloadSource = resolveSource(source);
+            random = randomGenerators.select(generator);
+            characters = alphabet == null ? Alphabet.ALPHANUMERIC : Alphabet.fromName(alphabet);
+            compression.checkLevel(level);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        endpointMetrics.recordResponseBytes(PayloadEndpoint.CHARS, n);
+        writeNegotiated(
+                request,
+                response,
+                n,
+                level,
+                target -> {
+                    // The pool only holds alphanumeric text and the payload file only bytes,
+                    // everything else is generated
+                    if (payloadSource == PayloadSource.POOL
+                            && characters == Alphabet.ALPHANUMERIC) {
+                        target.setContentLengthLong(n);
+                        contentPool.writeChars(target.getOutputStream(), n);
+                        return;
+                    }
+
+                    // Characters are generated as ASCII bytes, no String or re-encoding on the
+                    // way out
+                    writeChunked(
+                            target,
+                            n,
+                            DEFAULT_CHUNK_SIZE,
+                            (chunk, length) -> characters.fill(random, chunk, length));
+                });
+
+        // The body has been written to the response already
+        return null;
+    }
+
+    /**
+     * Serves a deterministic payload, leaving {@code Range} requests to Spring MVC's resource
+     * region support. Unsatisfiable ranges are answered here, Spring would otherwise send the whole
+     * document along with the 416, and an {@code If-Range} that does not match the entity tag
+     * gets the full document with a 200 as the range may refer to different content.
+     *
+     * <p>Ranges are of the document as it is. Whole documents are compressed if {@code
+     * Accept-Encoding} allows, from the precompressed cache if {@code precompress} and small
+     * enough.
+     */
+    private ResponseEntity<?> servePayload(
+            DeterministicPayload payload,
+            String etag,
+            boolean precompress,
+            Integer level,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        ContentCoding coding = compression.negotiate(request, response, payload.contentLength());
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null && coding != null) {
+            return serveCompressed(payload, etag, coding, precompress, level, response);
+        }
+        if (range != null) {
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (ifRange != null && !ifRange.equals(etag)) {
+                // InputStreamResource is excluded from range handling
+                return ResponseEntity.ok()
+                        .eTag(etag)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .contentLength(payload.contentLength())
+                        .body(new InputStreamResource(payload.getInputStream()));
+            }
+            try {
+                HttpRange.toResourceRegions(HttpRange.parseRanges(range), payload);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + payload.contentLength())
+                        .body(
+                                endpointMetrics.rejection(
+                                        "Range not satisfiable", e.getMessage()));
+            }
         }
 
-        String chars = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder result = new StringBuilder();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(payload);
+    }
+
+    /**
+     * Serves a deterministic payload compressed with {@code coding}. Precompressed, under an
+     * entity tag of its own as the bytes differ from the document's; otherwise as it is sent.
+     */
+    private ResponseEntity<?> serveCompressed(
+            DeterministicPayload payload,
+            String etag,
+            ContentCoding coding,
+            boolean precompress,
+            Integer level,
+            HttpServletResponse response)
+            throws IOException {
+        if (precompress && compression.isCacheable(payload.contentLength())) {
+            int precompressedLevel = compression.precompressedLevel(level);
+            byte[] body = compression.precompressed(etag, payload, coding, precompressedLevel);
+            return ResponseEntity.ok()
+                    .eTag(
+                            etag.substring(0, etag.length() - 1)
+                                    + "-"
+                                    + coding.token()
+                                    + "-"
+                                    + precompressedLevel
+                                    + "\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, coding.token())
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(body);
+        }
 
-        for (int i = 0; i < n; i++) {
-            int randomIndex = random.nextInt(chars.length());
-            result.append(chars.charAt(randomIndex));
+        // Not worth keeping or too large to, compressed as it is sent
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        try (CompressedResponse compressed = compression.wrap(response, coding, level);
+                InputStream in = payload.getInputStream()) {
+            in.transferTo(compressed.getOutputStream());
         }
+        return null;
+    }
+
+    /**
+     * Writes a body of {@code n} bytes with {@code writer}, through a compressed response if
+     * {@code Accept-Encoding} allows.
+     */
+    private void writeNegotiated(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            long n,
+            Integer level,
+            ResponseWriter writer)
+            throws IOException {
+        ContentCoding coding = compression.negotiate(request, response, n);
+        if (coding == null) {
+            writer.write(response);
+            return;
+        }
+        try (CompressedResponse compressed = compression.wrap(response, coding, level)) {
+            writer.write(compressed);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResponseWriter {
+        void write(HttpServletResponse response) throws IOException;
+    }
+
+    /** Writes {@code n} random bytes from {@code source} and records it in the payload metrics. */
+    private void writeRandomBytes(
+            PayloadSource source,
+            RandomGenerator random,
+            long n,
+            int chunkSize,
+            HttpServletRequest request,
+            HttpServletResponse response)
+            throws IOException {
+        long start = System.nanoTime();
+        switch (source) {
+            case POOL -> {
+                response.setContentLengthLong(n);
+                contentPool.writeBytes(response.getOutputStream(), n);
+            }
+            case FILE -> {
+                if (filePayloads.serve(request, response, n)) {
+                    payloadMetrics.recordHandoff(source, n);
+                    return;
+                }
+            }
+            case GENERATE ->
+                    writeChunked(
+                            response, n, chunkSize, (chunk, length) -> random.nextBytes(chunk));
+        }
+        payloadMetrics.recordWrite(source, n, start);
+    }
+
+    /**
+     * Writes an {@code n} byte body through a single reusable chunk, so memory per request is
+     * bounded by {@code chunkSize} whatever the payload size.
+     */
+    private static void writeChunked(
+            HttpServletResponse response, long n, int chunkSize, ObjIntConsumer<byte[]> filler)
+            throws IOException {
+        response.setContentLengthLong(n);
+        byte[] chunk = new byte[(int) Math.min(chunkSize, n)];
+        OutputStream out = response.getOutputStream();
+        for (long remaining = n; remaining > 0; ) {
+            int length = (int) Math.min(chunk.length, remaining);
+            filler.accept(chunk, length);
+            out.write(chunk, 0, length);
+            remaining -= length;
+        }
+        out.flush();
+    }
+
+    private PayloadSource resolveSource(String source) {
+        return source == null ? defaultSource : PayloadSource.fromName(source);
+    }
+
+    private ResponseEntity<?> unsupportedUuidVersion() {
+        return preEncoded.error(ConstantError.INVALID_UUID_VERSION);
+    }
 
-        return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body(result.toString());
+    private ResponseEntity<ErrorResponse> invalidParameter(IllegalArgumentException e) {
+        return ResponseEntity.badRequest()
+                .body(endpointMetrics.rejection("Invalid parameter", e.getMessage()));
     }
 }
@@ -0,0 +1,51 @@
+package com.example.myhttpbin.controller;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.example.myhttpbin.dto.ErrorResponse;
+import com.example.myhttpbin.metrics.EndpointMetrics;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The {@link ConstantError} responses, encoded once at startup with the application's {@link
+ * ObjectMapper}. Each is an immutable {@link ResponseEntity} with its Content-Type and
+ * Content-Length set, whose bytes Spring MVC's byte array converter copies to the response, so a
+ * rejected request costs no serialization and no allocation beyond the response itself. Each
+ * response handed out is counted as a rejection in the {@link EndpointMetrics}.
+ */
+@Component
+public class PreEncodedResponses {
+
+    private final Map<ConstantError, ResponseEntity<byte[]>> errors =
+            new EnumMap<>(ConstantError.class);
+    private final EndpointMetrics endpointMetrics;
+
+    public PreEncodedResponses(ObjectMapper objectMapper, EndpointMetrics endpointMetrics)
+            throws JsonProcessingException {
+        this.endpointMetrics = endpointMetrics;
+        for (ConstantError error : ConstantError.values()) {
+            byte[] body =
+                    objectMapper.writeValueAsBytes(
+                            new ErrorResponse(error.error(), error.message()));
+            errors.put(
+                    error,
+                    ResponseEntity.status(error.status())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .contentLength(body.length)
+                            .body(body));
+        }
+    }
+
+    /** The response for {@code error}, shared by all requests and never to be modified. */
+    public ResponseEntity<byte[]> error(ConstantError error) {
+        endpointMetrics.recordRejection(error.error());
+        return errors.get(error);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.myhttpbin.delay;
+
+import java.util.Locale;
+
+/**
+ * Shapes a delay can be drawn from. Each distribution turns two uniform variates in (0, 1] into a
+ * delay in seconds without allocating, so sampling stays off the allocation and lock paths.
+ */
+public enum DelayDistribution {
+    /** Always {@code scale}. */
+    FIXED {
+        @Override
+        double sample(double scale, double shape, double u1, double u2) {
+            return scale;
+        }
+    },
+    /** Uniform between {@code shape} (min) and {@code scale} (max). */
+    UNIFORM {
+        @Override
+        double sample(double scale, double shape, double u1, double u2) {
+            return shape + (scale - shape) * u1;
+        }
+    },
+    /** Normal with mean {@code scale} and standard deviation {@code shape}. */
+    NORMAL {
+        @Override
+        double sample(double scale, double shape, double u1, double u2) {
+            return scale + shape * standardNormal(u1, u2);
+        }
+    },
+    /** Exponential with mean {@code scale}. */
+    EXPONENTIAL {
+        @Override
+        double sample(double scale, double shape, double u1, double u2) {
+            return -scale * Math.log(u1);
+        }
+    },
+    /** Log-normal with median {@code scale} and log-space standard deviation {@code shape}. */
+    LOGNORMAL {
+        @Override
+        double sample(double scale, double shape, double u1, double u2) {
+            return scale * Math.exp(shape * standardNormal(u1, u2));
+        }
+    },
+    /** Pareto with minimum {@code scale} and tail index {@code shape}. */
+    PARETO {
+        @Override
+        double sample(double scale, double shape, double u1, double u2) {
+            return scale / Math.pow(u1, 1.0 / shape);
+        }
+    };
+
+    abstract double sample(double scale, double shape, double u1, double u2);
+
+    public static DelayDistribution fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown delay distribution: " + name);
+        }
+    }
+
+    private static double standardNormal(double u1, double u2) {
+        // Box-Muller, u1 is never 0 so the logarithm stays finite
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+}
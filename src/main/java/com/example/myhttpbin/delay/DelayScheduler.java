@@ -0,0 +1,67 @@
+package com.example.myhttpbin.delay;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+/**
+ * Shared timer for delayed responses. Every pending delay is an entry on a {@link
+ * HashedWheelTimer}, so a parked request costs a few dozen bytes instead of a servlet worker
+ * thread, and scheduling or cancelling stays constant time with hundreds of thousands of them.
+ *
+ * <p>Tick duration and wheel size are set with {@code myhttpbin.delay.timer.tick-duration} and
+ * {@code myhttpbin.delay.timer.wheel-size}.
+ */
+@Component
+public class DelayScheduler implements DisposableBean {
+
+    private final HashedWheelTimer timer;
+
+    public DelayScheduler(
+            @Value("${myhttpbin.delay.timer.tick-duration:1ms}") Duration tickDuration,
+            @Value("${myhttpbin.delay.timer.wheel-size:8192}") int wheelSize,
+            MeterRegistry meterRegistry) {
+        this.timer =
+                new HashedWheelTimer(
+                        "delay-timer", tickDuration.toNanos(), TimeUnit.NANOSECONDS, wheelSize);
+
+        Gauge.builder("myhttpbin.delay.timer.pending", timer, HashedWheelTimer::pendingTimeouts)
+                .description("Delayed responses waiting for their timer to fire")
+                .register(meterRegistry);
+        TimeGauge.builder(
+                        "myhttpbin.delay.timer.tick.lag",
+                        timer,
+                        TimeUnit.NANOSECONDS,
+                        HashedWheelTimer::lastTickLagNanos)
+                .description("How late the most recent timer tick ran")
+                .register(meterRegistry);
+        TimeGauge.builder(
+                        "myhttpbin.delay.timer.tick.lag.max",
+                        timer,
+                        TimeUnit.NANOSECONDS,
+                        HashedWheelTimer::maxTickLagNanos)
+                .description("Largest timer tick lag since startup")
+                .register(meterRegistry);
+    }
+
+    public HashedWheelTimer.Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return timer.newTimeout(task, delay, unit);
+    }
+
+    /** Number of delays that are scheduled but have not fired or been cancelled yet. */
+    public int pendingCount() {
+        return (int) timer.pendingTimeouts();
+    }
+
+    @Override
+    public void destroy() {
+        timer.stop();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.myhttpbin.delay;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+import com.example.myhttpbin.random.CounterRandom;
+
+/**
+ * Parsed delay parameters of a single request. The path value sets the scale of the distribution
+ * (the delay itself, the uniform maximum, the normal or exponential mean, the log-normal median or
+ * the Pareto minimum) and optional query parameters shape it:
+ *
+ * <ul>
+ *   <li>{@code distribution} - fixed (default), uniform, normal, exponential, lognormal, pareto
+ *   <li>{@code min} - uniform lower bound in seconds, defaults to 0
+ *   <li>{@code stddev} - normal standard deviation in seconds, defaults to a quarter of the mean
+ *   <li>{@code sigma} - log-normal shape, defaults to 0.5
+ *   <li>{@code alpha} - Pareto tail index, defaults to 2
+ *   <li>{@code seed} - makes the sample reproducible, the same seed always yields the same delay
+ * </ul>
+ *
+ * Samples are clamped to {@code [0, maxSeconds]} and rounded to whole milliseconds.
+ */
+public final class DelaySpec {
+
+    private final DelayDistribution distribution;
+    private final double scale;
+    private final double shape;
+    private final boolean seeded;
+    private final long seed;
+
+    private DelaySpec(
+            DelayDistribution distribution, double scale, double shape, boolean seeded, long seed) {
+        this.distribution = distribution;
+        this.scale = scale;
+        this.shape = shape;
+        this.seeded = seeded;
+        this.seed = seed;
+    }
+
+    /**
+     * Builds a spec from the path value and the request parameters.
+     *
+     * @throws IllegalArgumentException if a parameter is malformed or out of range
+     */
+    public static DelaySpec parse(double seconds, Function<String, String> parameters) {
+        if (!Double.isFinite(seconds) || seconds < 0) {
+            throw new IllegalArgumentException("Delay must be a non-negative number of seconds");
+        }
+
+        String name = parameters.apply("distribution");
+        DelayDistribution distribution =
+                name == null ? DelayDistribution.FIXED : DelayDistribution.fromName(name);
+
+        double shape;
+        switch (distribution) {
+            case UNIFORM:
+                shape = parseDouble(parameters, "min", 0);
+                if (shape < 0 || shape > seconds) {
+                    throw new IllegalArgumentException("min must be between 0 and the delay");
+                }
+                break;
+            case NORMAL:
+                shape = parseDouble(parameters, "stddev", seconds / 4);
+                break;
+            case LOGNORMAL:
+                shape = parseDouble(parameters, "sigma", 0.5);
+                break;
+            case PARETO:
+                shape = parseDouble(parameters, "alpha", 2);
+                if (shape <= 0) {
+                    throw new IllegalArgumentException("alpha must be positive");
+                }
+                break;
+            default:
+                shape = 0;
+        }
+        if (shape < 0) {
+            throw new IllegalArgumentException("Distribution shape must not be negative");
+        }
+
+        String seed = parameters.apply("seed");
+        if (seed == null) {
+            return new DelaySpec(distribution, seconds, shape, false, 0);
+        }
+        try {
+            return new DelaySpec(distribution, seconds, shape, true, Long.parseLong(seed));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("seed must be an integer");
+        }
+    }
+
+    /** Draws the delay for this request in milliseconds, clamped to {@code maxSeconds}. */
+    public long sampleMillis(double maxSeconds) {
+        double u1;
+        double u2;
+        if (seeded) {
+            u1 = toUnitInterval(CounterRandom.valueAt(seed, 0));
+            u2 = toUnitInterval(CounterRandom.valueAt(seed, 1));
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            u1 = 1.0 - random.nextDouble();
+            u2 = 1.0 - random.nextDouble();
+        }
+        double sample = distribution.sample(scale, shape, u1, u2);
+        double clamped = Math.min(Math.max(sample, 0), maxSeconds);
+        return Math.round(clamped * 1000);
+    }
+
+    private static double parseDouble(
+            Function<String, String> parameters, String name, double defaultValue) {
+        String value = parameters.apply(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(value);
+            if (!Double.isFinite(parsed)) {
+                throw new IllegalArgumentException(name + " must be a finite number");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    // Maps the top 53 bits to (0, 1], never 0 so logarithms and powers stay finite
+    private static double toUnitInterval(long bits) {
+        return ((bits >>> 11) + 1) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.myhttpbin.delay;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hashed timing wheel for very large numbers of pending timeouts.
+ *
+ * <p>Time is split into ticks of a fixed duration and every timeout is hashed into the bucket of
+ * the tick it expires in, wrapping around the wheel with a remaining-rounds counter for deadlines
+ * further away than one revolution. Scheduling and cancelling only enqueue the timeout for the
+ * worker thread, so both are O(1) regardless of how many timeouts are pending; the worker moves
+ * new timeouts into their buckets, unlinks cancelled ones and expires one bucket per tick.
+ *
+ * <p>Expiry is accurate to one tick. Tasks run on the worker thread and must be short.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    // Upper bound on timeouts moved into the wheel per tick, keeps a burst from stalling a tick
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<WheelTimeout> newTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final LongAdder pending = new LongAdder();
+    private final Thread worker;
+    private final long startNanos;
+
+    private volatile boolean running = true;
+    private volatile long lastTickLagNanos;
+    private volatile long maxTickLagNanos;
+
+    /**
+     * Creates and starts a timer.
+     *
+     * @param threadName name of the worker thread
+     * @param tickDuration duration of one tick, the resolution of the timer
+     * @param unit unit of {@code tickDuration}
+     * @param wheelSize number of buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(String threadName, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > 1 << 30) {
+            throw new IllegalArgumentException("wheelSize out of range: " + wheelSize);
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (wheelSize == 1) {
+            size = 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules {@code task} to run once after {@code delay}. Negative delays expire on the next
+     * tick.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer has been stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + Math.max(unit.toNanos(delay), 0);
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pending.increment();
+        newTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /** Number of timeouts that have neither expired nor been cancelled. */
+    public long pendingTimeouts() {
+        return pending.sum();
+    }
+
+    /**
+     * Whether scheduled or cancelled timeouts are waiting for the worker to move them into or out
+     * of their bucket.
+     */
+    public boolean hasQueuedTimeouts() {
+        return !newTimeouts.isEmpty() || !cancelledTimeouts.isEmpty();
+    }
+
+    /** How late the most recent tick started compared to its scheduled time. */
+    public long lastTickLagNanos() {
+        return lastTickLagNanos;
+    }
+
+    /** Largest tick lag observed since the timer started. */
+    public long maxTickLagNanos() {
+        return maxTickLagNanos;
+    }
+
+    /** Stops the worker thread, pending timeouts never fire. */
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        long tick = 0;
+        while (running) {
+            long tickDeadline = tickNanos * (tick + 1);
+            if (!awaitTick(tickDeadline)) {
+                return;
+            }
+            long lag = System.nanoTime() - startNanos - tickDeadline;
+            lastTickLagNanos = lag;
+            if (lag > maxTickLagNanos) {
+                maxTickLagNanos = lag;
+            }
+
+            removeCancelled();
+            transferNewTimeouts(tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private boolean awaitTick(long tickDeadline) {
+        while (true) {
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    private void transferNewTimeouts(long tick) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            WheelTimeout timeout = newTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != WheelTimeout.ST_INIT) {
+                continue;
+            }
+            long expiryTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            // A deadline already in the past goes into the current bucket
+            long bucketTick = Math.max(expiryTick, tick);
+            wheel[(int) (bucketTick & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /** Handle of a scheduled task. */
+    public interface Timeout {
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return {@code true} if this call cancelled the task
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    private final class WheelTimeout implements Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state = ST_INIT;
+
+        // Only touched by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout prev;
+        private WheelTimeout next;
+
+        WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            pending.decrement();
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            pending.decrement();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn("Timer task {} failed", task, t);
+            }
+        }
+    }
+
+    /** Doubly linked list of timeouts, only accessed by the worker thread. */
+    private static final class Bucket {
+
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    // Bucket placement guarantees deadline <= tickDeadline at this point
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -1,19 +1,3 @@
 package com.example.myhttpbin.dto;
 
-public class Base64Response {
-    private String decoded;
-
-    public Base64Response() {}
-
-    public Base64Response(String decoded) {
-        this.decoded = decoded;
-    }
-
-    public String getDecoded() {
-        return decoded;
-    }
-
-    public void setDecoded(String decoded) {
-        this.decoded = decoded;
-    }
-}
+public record Base64Response(String decoded) {}
@@ -0,0 +1,112 @@
+package com.example.myhttpbin.dto;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Hand-written serializers for the response records. Jackson's reflective bean serializer looks
+ * up each record component through its accessor and its property writer; these write the fields
+ * directly, with field names encoded once as {@link SerializedString}. The output is the same as
+ * the reflective one with the default settings, including {@code null} values.
+ */
+public final class DtoSerializers extends SimpleModule {
+
+    private static final SerializedString UUID = new SerializedString("uuid");
+    private static final SerializedString DECODED = new SerializedString("decoded");
+    private static final SerializedString ERROR = new SerializedString("error");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString ARGS = new SerializedString("args");
+    private static final SerializedString HEADERS = new SerializedString("headers");
+    private static final SerializedString ORIGIN = new SerializedString("origin");
+    private static final SerializedString URL = new SerializedString("url");
+
+    public DtoSerializers() {
+        super(DtoSerializers.class.getSimpleName());
+        addSerializer(UuidResponse.class, new UuidResponseSerializer());
+        addSerializer(Base64Response.class, new Base64ResponseSerializer());
+        addSerializer(ErrorResponse.class, new ErrorResponseSerializer());
+        addSerializer(DelayResponse.class, new DelayResponseSerializer());
+    }
+
+    private static final class UuidResponseSerializer extends StdSerializer<UuidResponse> {
+
+        UuidResponseSerializer() {
+            super(UuidResponse.class);
+        }
+
+        @Override
+        public void serialize(
+                UuidResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(UUID);
+            generator.writeString(value.uuid());
+            generator.writeEndObject();
+        }
+    }
+
+    private static final class Base64ResponseSerializer extends StdSerializer<Base64Response> {
+
+        Base64ResponseSerializer() {
+            super(Base64Response.class);
+        }
+
+        @Override
+        public void serialize(
+                Base64Response value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(DECODED);
+            generator.writeString(value.decoded());
+            generator.writeEndObject();
+        }
+    }
+
+    private static final class ErrorResponseSerializer extends StdSerializer<ErrorResponse> {
+
+        ErrorResponseSerializer() {
+            super(ErrorResponse.class);
+        }
+
+        @Override
+        public void serialize(
+                ErrorResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            generator.writeFieldName(ERROR);
+            generator.writeString(value.error());
+            generator.writeFieldName(MESSAGE);
+            generator.writeString(value.message());
+            generator.writeEndObject();
+        }
+    }
+
+    private static final class DelayResponseSerializer extends StdSerializer<DelayResponse> {
+
+        DelayResponseSerializer() {
+            super(DelayResponse.class);
+        }
+
+        @Override
+        public void serialize(
+                DelayResponse value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeStartObject(value);
+            // The maps hold arbitrary values, left to the serializers Jackson resolves for them
+            generator.writeFieldName(ARGS);
+            provider.defaultSerializeValue(value.args(), generator);
+            generator.writeFieldName(HEADERS);
+            provider.defaultSerializeValue(value.headers(), generator);
+            generator.writeFieldName(ORIGIN);
+            generator.writeString(value.origin());
+            generator.writeFieldName(URL);
+            generator.writeString(value.url());
+            generator.writeEndObject();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.myhttpbin.dto;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs {@link DtoSerializers} into the application's {@code ObjectMapper}. Setting {@code
+ * myhttpbin.json.fast-serializers=false} falls back to Jackson's reflective serialization of the
+ * records, to compare the two.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(
+        name = "myhttpbin.json.fast-serializers",
+        havingValue = "true",
+        matchIfMissing = true)
+public class DtoSerializersConfiguration {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer dtoSerializersCustomizer() {
+        // Registered after Spring Boot's own modules, which modulesToInstall would replace
+        return builder ->
+                builder.postConfigurer(
+                        objectMapper -> objectMapper.registerModule(new DtoSerializers()));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.myhttpbin.echo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Reads request bodies for the echo endpoints without holding large ones on the heap. Bodies up
+ * to {@code myhttpbin.echo.body.memory-threshold} stay in memory as bytes, anything larger is
+ * spilled to a temporary file in {@code myhttpbin.echo.body.spill-directory} while it is read.
+ * The SHA-256 digest and a preview of {@code myhttpbin.echo.body.preview-size} bytes are
+ * computed on the way.
+ */
+@Component
+public class BodyCapture {
+
+    private static final int READ_CHUNK_SIZE = 8 * 1024;
+
+    private final int memoryThreshold;
+    private final Path spillDirectory;
+    private final int previewSize;
+
+    public BodyCapture(
+            @Value("${myhttpbin.echo.body.memory-threshold:1MB}") DataSize memoryThreshold,
+            @Value("${myhttpbin.echo.body.spill-directory:${java.io.tmpdir}/myhttpbin-bodies}")
+                    Path spillDirectory,
+            @Value("${myhttpbin.echo.body.preview-size:256}") int previewSize) {
+        if (memoryThreshold.toBytes() < 0 || memoryThreshold.toBytes() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                    "myhttpbin.echo.body.memory-threshold out of range: " + memoryThreshold);
+        }
+        this.memoryThreshold = (int) memoryThreshold.toBytes();
+        this.spillDirectory = spillDirectory;
+        this.previewSize = previewSize;
+    }
+
+    /** Largest body kept in memory, in bytes. */
+    public long memoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /**
+     * Reads the body of {@code request}, the caller must close the result. Form posts whose
+     * parameters were already read are re-encoded from them, as for {@code @RequestBody}.
+     */
+    public CapturedBody capture(HttpServletRequest request) throws IOException {
+        return capture(new ServletServerHttpRequest(request).getBody(), charsetOf(request));
+    }
+
+    public CapturedBody capture(InputStream in, Charset charset) throws IOException {
+        MessageDigest digest = sha256();
+        ByteArrayOutputStream memory = new ByteArrayOutputStream();
+        byte[] preview = new byte[previewSize];
+        int previewLength = 0;
+        Path spillFile = null;
+        OutputStream spill = null;
+        long size = 0;
+        try {
+            byte[] chunk = new byte[READ_CHUNK_SIZE];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                digest.update(chunk, 0, read);
+                size += read;
+                if (previewLength < previewSize) {
+                    int length = Math.min(previewSize - previewLength, read);
+                    System.arraycopy(chunk, 0, preview, previewLength, length);
+                    previewLength += length;
+                }
+                if (spill == null && size > memoryThreshold) {
+                    // Too large for memory: move what was read so far to disk, then continue there
+                    Files.createDirectories(spillDirectory);
+                    spillFile = Files.createTempFile(spillDirectory, "body-", ".bin");
+                    spill = Files.newOutputStream(spillFile);
+                    memory.writeTo(spill);
+                    memory = null;
+                }
+                if (spill != null) {
+                    spill.write(chunk, 0, read);
+                } else {
+                    memory.write(chunk, 0, read);
+                }
+            }
+            if (spill != null) {
+                spill.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (spill != null) {
+                spill.close();
+            }
+            if (spillFile != null) {
+                Files.deleteIfExists(spillFile);
+            }
+            throw e;
+        }
+
+        return new CapturedBody(
+                memory != null ? memory.toByteArray() : null,
+                spillFile,
+                size,
+                digest.digest(),
+                Arrays.copyOf(preview, previewLength),
+                charset);
+    }
+
+    private static Charset charsetOf(HttpServletRequest request) {
+        String encoding = request.getCharacterEncoding();
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                // Unknown charset, fall through to the default
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required on every Java platform", e);
+        }
+    }
+}
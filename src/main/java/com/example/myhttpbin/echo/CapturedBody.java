@@ -0,0 +1,112 @@
+package com.example.myhttpbin.echo;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A request body captured by {@link BodyCapture}: held in memory when small, otherwise in a spill
+ * file that is deleted on {@link #close()}. Size, SHA-256 digest and the first bytes are known
+ * without reading the body again.
+ */
+public final class CapturedBody implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(CapturedBody.class);
+
+    private final byte[] memory;
+    private final Path spillFile;
+    private final long size;
+    private final byte[] sha256;
+    private final byte[] preview;
+    private final Charset charset;
+
+    CapturedBody(
+            byte[] memory,
+            Path spillFile,
+            long size,
+            byte[] sha256,
+            byte[] preview,
+            Charset charset) {
+        this.memory = memory;
+        this.spillFile = spillFile;
+        this.size = size;
+        this.sha256 = sha256;
+        this.preview = preview;
+        this.charset = charset;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isSpilled() {
+        return spillFile != null;
+    }
+
+    public String sha256Hex() {
+        return HexFormat.of().formatHex(sha256);
+    }
+
+    /** The first bytes of the body as text, malformed characters replaced. */
+    public String preview() {
+        return new String(preview, charset);
+    }
+
+    /** Whether {@link #preview()} leaves out part of the body. */
+    public boolean isPreviewTruncated() {
+        return preview.length < size;
+    }
+
+    public Charset charset() {
+        return charset;
+    }
+
+    /** The body as text, only available for bodies held in memory. */
+    public String text() {
+        if (memory == null) {
+            throw new IllegalStateException("Body spilled to disk, stream it instead");
+        }
+        return new String(memory, charset);
+    }
+
+    /** Whether the body has no content besides whitespace, as {@code trim().isEmpty()}. */
+    public boolean isBlank() {
+        if (memory == null) {
+            // Spilled bodies are far larger than any whitespace worth skipping
+            return false;
+        }
+        for (byte b : memory) {
+            if ((b & 0xff) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Reads the whole body from the start, as often as needed. */
+    public InputStream openStream() throws IOException {
+        return memory != null ? new ByteArrayInputStream(memory) : Files.newInputStream(spillFile);
+    }
+
+    /**
+     * Deletes the spill file, if any. Runs once the response is complete, where nothing could act
+     * on a failure, so a file that cannot be deleted is only logged.
+     */
+    @Override
+    public void close() {
+        if (spillFile != null) {
+            try {
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                log.warn("Could not delete request body spill file {}", spillFile, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.myhttpbin.echo;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Request headers that carry credentials: {@code Authorization}, {@code Proxy-Authorization} and
+ * {@code Cookie}. What the server keeps of a request records their values as {@value #REDACTED}.
+ */
+public final class CredentialHeaders {
+
+    /** Recorded in place of a credential. */
+    public static final String REDACTED = "[redacted]";
+
+    private static final Set<String> NAMES = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        NAMES.addAll(List.of("Authorization", "Proxy-Authorization", "Cookie"));
+    }
+
+    private CredentialHeaders() {}
+
+    /** Whether the header {@code name}, in any case, carries credentials. */
+    public static boolean isCredential(String name) {
+        return NAMES.contains(name);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.myhttpbin.echo;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * The parts of a request that {@link EchoResponse} echoes, read from the servlet or the reactive
+ * request only when the echo is serialized. Args and headers are written straight to the
+ * generator rather than copied out.
+ */
+interface EchoRequest {
+
+    /** Writes the request parameters as the fields of an object. */
+    void writeArgs(JsonGenerator generator) throws IOException;
+
+    /** Writes the first value of each header as the fields of an object. */
+    void writeHeaders(JsonGenerator generator) throws IOException;
+
+    String origin();
+
+    /** The full request URL, with the query string. */
+    String url();
+
+    String parameter(String name);
+
+    String contentType();
+}
@@ -0,0 +1,170 @@
+package com.example.myhttpbin.echo;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The httpbin echo of a request: its args, headers, origin, url and method, plus the body as
+ * {@code data} and, parsed by the {@link JsonBodyParser} when it is JSON, {@code json}. Instead
+ * of copying the request into maps for Jackson to reflect over, the fields are written from the
+ * servlet or reactive request straight to the {@link JsonGenerator} on the response stream when
+ * the response is serialized.
+ *
+ * <p>A {@code body} object describes the captured body by size, digest and preview. Bodies that
+ * were spilled to disk are only echoed as {@code data} with {@code echo_body=true}, and then
+ * streamed from the spill file.
+ *
+ * <p>The request must still be live at that point, which holds for async requests until they
+ * complete.
+ */
+public final class EchoResponse implements JsonSerializable {
+
+    static final String ECHO_BODY_PARAMETER = "echo_body";
+
+    private final EchoRequest request;
+    private final String method;
+    private final CapturedBody body;
+    private final JsonBodyParser jsonParser;
+    private final Double delay;
+    private final String flag;
+
+    private EchoResponse(
+            EchoRequest request,
+            String method,
+            CapturedBody body,
+            JsonBodyParser jsonParser,
+            Double delay,
+            String flag) {
+        this.request = request;
+        this.method = method;
+        this.body = body;
+        this.jsonParser = jsonParser;
+        this.delay = delay;
+        this.flag = flag;
+    }
+
+    /**
+     * The echo of {@code request} with {@code body}, if it had one, whose {@code json} field is
+     * filled by {@code jsonParser}, or always {@code null} without one.
+     */
+    public static EchoResponse of(
+            HttpServletRequest request,
+            String method,
+            CapturedBody body,
+            JsonBodyParser jsonParser) {
+        return new EchoResponse(
+                new ServletEchoRequest(request), method, body, jsonParser, null, null);
+    }
+
+    /**
+     * The echo of a WebFlux {@code request}, whose args are its query parameters, otherwise as
+     * for servlet requests.
+     */
+    public static EchoResponse of(
+            ServerRequest request,
+            String method,
+            CapturedBody body,
+            JsonBodyParser jsonParser) {
+        return new EchoResponse(
+                new ReactiveEchoRequest(request), method, body, jsonParser, null, null);
+    }
+
+    /** The echo with an additional {@code delay} field, in seconds. */
+    public EchoResponse withDelay(double seconds) {
+        return new EchoResponse(request, method, body, jsonParser, seconds, flag);
+    }
+
+    /** The echo with an additional {@code name} field set to {@code true}, like {@code gzipped}. */
+    public EchoResponse withFlag(String name) {
+        return new EchoResponse(request, method, body, jsonParser, delay, name);
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject();
+
+        generator.writeObjectFieldStart("args");
+        request.writeArgs(generator);
+        generator.writeEndObject();
+
+        generator.writeObjectFieldStart("headers");
+        request.writeHeaders(generator);
+        generator.writeEndObject();
+
+        generator.writeStringField("origin", request.origin());
+        generator.writeStringField("url", request.url());
+        generator.writeStringField("method", method);
+
+        if (body != null && !body.isBlank()) {
+            writeData(generator);
+            writeJson(generator);
+            writeBodyInfo(generator);
+        }
+
+        if (delay != null) {
+            generator.writeNumberField("delay", delay);
+        }
+
+        if (flag != null) {
+            generator.writeBooleanField(flag, true);
+        }
+
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(
+            JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer)
+            throws IOException {
+        // Never part of a polymorphic type hierarchy
+        serialize(generator, provider);
+    }
+
+    private void writeData(JsonGenerator generator) throws IOException {
+        if (!body.isSpilled()) {
+            generator.writeStringField("data", body.text());
+        } else if ("true".equalsIgnoreCase(request.parameter(ECHO_BODY_PARAMETER))) {
+            generator.writeFieldName("data");
+            // Escaped and written chunk by chunk, the body is never held as a whole
+            try (Reader reader = new InputStreamReader(body.openStream(), body.charset())) {
+                generator.writeString(reader, -1);
+            }
+        }
+    }
+
+    private void writeBodyInfo(JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart("body");
+        generator.writeNumberField("size", body.size());
+        generator.writeStringField("sha256", body.sha256Hex());
+        generator.writeStringField("preview", body.preview());
+        generator.writeBooleanField("truncated", body.isPreviewTruncated());
+        generator.writeBooleanField("spilled", body.isSpilled());
+        generator.writeEndObject();
+    }
+
+    private void writeJson(JsonGenerator generator) throws IOException {
+        if (jsonParser == null || !jsonParser.accepts(request)) {
+            generator.writeNullField("json");
+            return;
+        }
+        String error = jsonParser.validate(body);
+        if (error == null) {
+            generator.writeFieldName("json");
+            jsonParser.copy(body, generator);
+        } else {
+            generator.writeNullField("json");
+            generator.writeStringField("json_error", error);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.myhttpbin.echo;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The body of a form-encoded request, re-encoded from its parameters. The container parses form
+ * posts itself, and {@code FormContentFilter} the other methods, so the body never goes through
+ * a wrapped {@link HttpServletRequest#getInputStream()}; the parameters are all that is left of
+ * it. Encoded as {@code ServletServerHttpRequest} does, less the parameters of the query string.
+ */
+public final class FormBody {
+
+    private static final Set<String> FORM_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private FormBody() {}
+
+    /** Whether the body of {@code request} is parsed into parameters before it is read. */
+    public static boolean isForm(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null
+                && contentType.contains(MediaType.APPLICATION_FORM_URLENCODED_VALUE)
+                && FORM_METHODS.contains(request.getMethod());
+    }
+
+    /**
+     * The body of a request for which {@link #isForm} holds, in its character encoding or UTF-8.
+     */
+    public static byte[] encode(HttpServletRequest request) {
+        Charset charset =
+                request.getCharacterEncoding() != null
+                        ? Charset.forName(request.getCharacterEncoding())
+                        : StandardCharsets.UTF_8;
+        Map<String, Integer> inQuery = queryParameterCounts(request.getQueryString(), charset);
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+            String name = parameter.getKey();
+            String[] values = parameter.getValue();
+            // The container lists the query string values first
+            for (int i = inQuery.getOrDefault(name, 0); i < values.length; i++) {
+                if (!body.isEmpty()) {
+                    body.append('&');
+                }
+                body.append(URLEncoder.encode(name, charset))
+                        .append('=')
+                        .append(URLEncoder.encode(values[i], charset));
+            }
+        }
+        return body.toString().getBytes(charset);
+    }
+
+    private static Map<String, Integer> queryParameterCounts(String query, Charset charset) {
+        Map<String, Integer> counts = new HashMap<>();
+        if (query == null) {
+            return counts;
+        }
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), charset);
+            counts.merge(name, 1, Integer::sum);
+        }
+        return counts;
+    }
+}
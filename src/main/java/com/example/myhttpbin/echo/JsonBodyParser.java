@@ -0,0 +1,105 @@
+package com.example.myhttpbin.echo;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parses echoed JSON bodies without building a tree. A first streaming pass checks the body
+ * against the size, depth and token limits, a second one copies its tokens straight into the
+ * response generator, so memory does not grow with the body beyond the body itself.
+ *
+ * <p>Only bodies sent as JSON are parsed, and clients can opt out with {@code parse_json=false}.
+ * The limits are set with {@code myhttpbin.echo.json.max-size}, {@code max-depth} and {@code
+ * max-tokens}.
+ */
+@Component
+public class JsonBodyParser {
+
+    static final String OPT_OUT_PARAMETER = "parse_json";
+
+    private final JsonFactory jsonFactory;
+    private final long maxSize;
+    private final int maxDepth;
+    private final long maxTokens;
+
+    public JsonBodyParser(
+            ObjectMapper objectMapper,
+            @Value("${myhttpbin.echo.json.max-size:1MB}") DataSize maxSize,
+            @Value("${myhttpbin.echo.json.max-depth:64}") int maxDepth,
+            @Value("${myhttpbin.echo.json.max-tokens:100000}") long maxTokens) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.maxSize = maxSize.toBytes();
+        this.maxDepth = maxDepth;
+        this.maxTokens = maxTokens;
+    }
+
+    /** Whether the body of {@code request} should be parsed at all. */
+    boolean accepts(EchoRequest request) {
+        if ("false".equalsIgnoreCase(request.parameter(OPT_OUT_PARAMETER))) {
+            return false;
+        }
+        String contentType = request.contentType();
+        if (contentType == null) {
+            return false;
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                    || "json".equals(mediaType.getSubtypeSuffix());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks that {@code body} is a single JSON value within the limits. Jackson detects its
+     * encoding, UTF-8, UTF-16 or UTF-32, from the bytes.
+     *
+     * @return why the body cannot be echoed as JSON, {@code null} if it can
+     */
+    String validate(CapturedBody body) throws IOException {
+        if (body.size() > maxSize) {
+            return "Body exceeds the maximum size of " + maxSize + " bytes";
+        }
+        try (JsonParser parser = jsonFactory.createParser(body.openStream())) {
+            int depth = 0;
+            long tokens = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (++tokens > maxTokens) {
+                    return "Body exceeds the maximum of " + maxTokens + " tokens";
+                }
+                if (token.isStructStart() && ++depth > maxDepth) {
+                    return "Body exceeds the maximum depth of " + maxDepth;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+                if (depth == 0 && parser.nextToken() != null) {
+                    return "Body contains more than one JSON value";
+                }
+            }
+            return null;
+        } catch (JsonProcessingException e) {
+            return "Invalid JSON: " + e.getOriginalMessage();
+        }
+    }
+
+    /** Writes the already validated {@code body} as the next value of {@code generator}. */
+    void copy(CapturedBody body, JsonGenerator generator) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body.openStream())) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.myhttpbin.echo;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.server.ServerRequest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/** An {@link EchoRequest} over a WebFlux request, the args are its query parameters. */
+final class ReactiveEchoRequest implements EchoRequest {
+
+    private final ServerRequest request;
+
+    ReactiveEchoRequest(ServerRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public void writeArgs(JsonGenerator generator) throws IOException {
+        for (Map.Entry<String, List<String>> parameter : request.queryParams().entrySet()) {
+            List<String> values = parameter.getValue();
+            generator.writeFieldName(parameter.getKey());
+            if (values.size() == 1) {
+                generator.writeString(values.get(0));
+            } else {
+                generator.writeStartArray(values, values.size());
+                for (String value : values) {
+                    generator.writeString(value);
+                }
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    @Override
+    public void writeHeaders(JsonGenerator generator) throws IOException {
+        HttpHeaders headers = request.headers().asHttpHeaders();
+        for (String headerName : headers.keySet()) {
+            generator.writeStringField(headerName, headers.getFirst(headerName));
+        }
+    }
+
+    @Override
+    public String origin() {
+        return request.remoteAddress()
+                .map(InetSocketAddress::getAddress)
+                .map(InetAddress::getHostAddress)
+                .orElse(null);
+    }
+
+    @Override
+    public String url() {
+        return request.uri().toString();
+    }
+
+    @Override
+    public String parameter(String name) {
+        return request.queryParam(name).orElse(null);
+    }
+
+    @Override
+    public String contentType() {
+        return request.headers().firstHeader(HttpHeaders.CONTENT_TYPE);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.myhttpbin.echo;
+
+import java.io.IOException;
+import java.util.Enumeration;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/** An {@link EchoRequest} over a servlet request, which must still be live when it is read. */
+final class ServletEchoRequest implements EchoRequest {
+
+    private final HttpServletRequest request;
+
+    ServletEchoRequest(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    @Override
+    public void writeArgs(JsonGenerator generator) throws IOException {
+        for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+            String[] values = parameter.getValue();
+            generator.writeFieldName(parameter.getKey());
+            if (values.length == 1) {
+                generator.writeString(values[0]);
+            } else {
+                generator.writeArray(values, 0, values.length);
+            }
+        }
+    }
+
+    @Override
+    public void writeHeaders(JsonGenerator generator) throws IOException {
+        Enumeration<String> headerNames = request.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            generator.writeStringField(headerName, request.getHeader(headerName));
+        }
+    }
+
+    @Override
+    public String origin() {
+        return request.getRemoteAddr();
+    }
+
+    @Override
+    public String url() {
+        StringBuffer url = request.getRequestURL();
+        String query = request.getQueryString();
+        if (query != null) {
+            url.append('?').append(query);
+        }
+        return url.toString();
+    }
+
+    @Override
+    public String parameter(String name) {
+        return request.getParameter(name);
+    }
+
+    @Override
+    public String contentType() {
+        return request.getContentType();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.myhttpbin.history;
+
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Fixed-size ring of the most recent requests, written without locks.
+ *
+ * <p>All slots are allocated up front, each with a byte area of {@code entrySize} for the method,
+ * URL and headers, so the memory taken never grows. A writer claims the next sequence number from
+ * a counter, the way a disruptor does, fills the slot it maps to in place and publishes it by
+ * storing its sequence in the slot; writers never wait for each other. When a writer laps another
+ * that is still filling the same slot, which takes a whole revolution of the ring during one
+ * write, the entry is dropped and counted rather than waited for.
+ *
+ * <p>Readers copy a slot and keep the copy only if its published sequence did not change in the
+ * meantime, as with a seqlock, so they never block writers either. Text is stored as ISO-8859-1,
+ * the charset of HTTP header values; other characters are replaced by {@code ?}.
+ */
+public class HistoryBuffer {
+
+    private final Slot[] slots;
+    private final int mask;
+    private final int entrySize;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param capacity number of entries kept, rounded up to a power of two
+     * @param entrySize bytes of method, URL and headers kept per entry, the rest is truncated
+     */
+    public HistoryBuffer(int capacity, int entrySize) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity out of range: " + capacity);
+        }
+        if (entrySize <= 0) {
+            throw new IllegalArgumentException("entrySize must be positive: " + entrySize);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(entrySize);
+        }
+        this.mask = size - 1;
+        this.entrySize = entrySize;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public int entrySize() {
+        return entrySize;
+    }
+
+    /** Number of entries claimed since creation, including dropped and overwritten ones. */
+    public long recorded() {
+        return nextSequence.get();
+    }
+
+    /** Number of entries dropped because a slower writer still held their slot. */
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Claims the slot of the next entry, to be filled and then passed to {@link #publish}, or
+     * returns {@code null} if the entry has to be dropped.
+     */
+    public Slot claim() {
+        long sequence = nextSequence.getAndIncrement();
+        Slot slot = slots[(int) (sequence & mask)];
+        long state = slot.state;
+        // Held by a writer of an earlier lap, or already taken by a later one
+        boolean busy = state != Slot.EMPTY && ((state & 1) == 0 || state >>> 1 > sequence);
+        if (busy || !Slot.STATE.compareAndSet(slot, state, sequence << 1)) {
+            dropped.increment();
+            return null;
+        }
+        slot.sequence = sequence;
+        slot.length = 0;
+        slot.truncated = false;
+        return slot;
+    }
+
+    /** Makes a slot returned by {@link #claim} visible to readers. */
+    public void publish(Slot slot) {
+        Slot.STATE.lazySet(slot, (slot.sequence << 1) | 1);
+    }
+
+    /** Up to {@code limit} entries matching {@code filter}, newest first. */
+    public List<HistoryEntry> newestFirst(Predicate<HistoryEntry> filter, int limit) {
+        List<HistoryEntry> entries = new ArrayList<>();
+        byte[] text = new byte[entrySize];
+        long last = nextSequence.get() - 1;
+        long first = Math.max(0, last - mask);
+        for (long sequence = last; sequence >= first && entries.size() < limit; sequence--) {
+            HistoryEntry entry = read(slots[(int) (sequence & mask)], sequence, text);
+            if (entry != null && filter.test(entry)) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    /** The entry {@code sequence} of {@code slot}, {@code null} if not published or overwritten. */
+    private static HistoryEntry read(Slot slot, long sequence, byte[] text) {
+        long published = (sequence << 1) | 1;
+        if (slot.state != published) {
+            return null;
+        }
+        int length = Math.min(slot.length, text.length);
+        System.arraycopy(slot.text, 0, text, 0, length);
+        int methodEnd = slot.methodEnd;
+        int pathEnd = slot.pathEnd;
+        int queryEnd = slot.queryEnd;
+        boolean truncated = slot.truncated;
+        long timestampMillis = slot.timestampMillis;
+        long latencyNanos = slot.latencyNanos;
+        int status = slot.status;
+        long bodySize = slot.bodySize;
+        long bodyCrc32c = slot.bodyCrc32c;
+        // Fields read before the state is checked again, the copy is torn if it changed
+        VarHandle.acquireFence();
+        if (slot.state != published) {
+            return null;
+        }
+
+        String method = latin1(text, 0, methodEnd);
+        String path = latin1(text, methodEnd, pathEnd);
+        String query = queryEnd > pathEnd ? latin1(text, pathEnd, queryEnd) : null;
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        int start = queryEnd;
+        for (int i = queryEnd; i < length; i++) {
+            if (text[i] == '\n') {
+                int colon = start;
+                while (text[colon] != ':') {
+                    colon++;
+                }
+                headers.computeIfAbsent(latin1(text, start, colon), name -> new ArrayList<>())
+                        .add(latin1(text, colon + 1, i));
+                start = i + 1;
+            }
+        }
+        return new HistoryEntry(
+                sequence,
+                Instant.ofEpochMilli(timestampMillis),
+                method,
+                path,
+                query,
+                headers,
+                truncated,
+                bodySize,
+                bodyCrc32c >= 0 ? HexFormat.of().toHexDigits((int) bodyCrc32c) : null,
+                latencyNanos / 1_000_000.0,
+                status);
+    }
+
+    private static String latin1(byte[] text, int from, int to) {
+        return new String(text, from, to - from, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * A preallocated entry, filled in place by the writer that claimed it: {@link #request}
+     * first, then any number of {@link #header}s, then {@link #response}.
+     */
+    public static final class Slot {
+
+        private static final long EMPTY = -1;
+
+        private static final AtomicLongFieldUpdater<Slot> STATE =
+                AtomicLongFieldUpdater.newUpdater(Slot.class, "state");
+
+        // Sequence times two while being written, plus one once published
+        private volatile long state = EMPTY;
+
+        private long sequence;
+        private final byte[] text;
+        private int length;
+        private int methodEnd;
+        private int pathEnd;
+        private int queryEnd;
+        private boolean truncated;
+        private long timestampMillis;
+        private long latencyNanos;
+        private int status;
+        private long bodySize;
+        private long bodyCrc32c;
+
+        private Slot(int entrySize) {
+            this.text = new byte[entrySize];
+        }
+
+        /** Starts the entry, {@code query} is {@code null} when the URL has none. */
+        public void request(long timestampMillis, String method, String path, String query) {
+            this.timestampMillis = timestampMillis;
+            append(method);
+            methodEnd = length;
+            append(path);
+            pathEnd = length;
+            if (query != null) {
+                append(query);
+            }
+            queryEnd = length;
+        }
+
+        /** Adds a header, left out and marked as truncated when it does not fit anymore. */
+        public void header(String name, String value) {
+            if (truncated || length + name.length() + value.length() + 2 > text.length) {
+                truncated = true;
+                return;
+            }
+            append(name);
+            text[length++] = ':';
+            append(value);
+            text[length++] = '\n';
+        }
+
+        /** Completes the entry, {@code bodyCrc32c} is -1 when the body was not read. */
+        public void response(int status, long latencyNanos, long bodySize, long bodyCrc32c) {
+            this.status = status;
+            this.latencyNanos = latencyNanos;
+            this.bodySize = bodySize;
+            this.bodyCrc32c = bodyCrc32c;
+        }
+
+        private void append(String value) {
+            int n = Math.min(value.length(), text.length - length);
+            if (n < value.length()) {
+                truncated = true;
+            }
+            for (int i = 0; i < n; i++) {
+                char c = value.charAt(i);
+                text[length++] = c <= 0xff ? (byte) c : (byte) '?';
+            }
+        }
+    }
+}
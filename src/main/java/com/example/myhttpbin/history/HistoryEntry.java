@@ -0,0 +1,23 @@
+package com.example.myhttpbin.history;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request recorded by {@link HistoryBuffer}. {@code truncated} tells that part of the URL or
+ * headers did not fit in the entry; {@code bodyCrc32c}, the CRC-32C of the body as 8 hex digits,
+ * is {@code null} when the endpoint did not read the body, {@code bodySize} then stays 0.
+ */
+public record HistoryEntry(
+        long sequence,
+        Instant timestamp,
+        String method,
+        String path,
+        String query,
+        Map<String, List<String>> headers,
+        boolean truncated,
+        long bodySize,
+        String bodyCrc32c,
+        double latencyMillis,
+        int status) {}
@@ -0,0 +1,111 @@
+package com.example.myhttpbin.history;
+
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.example.myhttpbin.echo.CredentialHeaders;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The most recent requests of the dynamic data endpoints, recorded by {@link
+ * RequestHistoryFilter} and served by {@code /history}. Entries live in a {@link HistoryBuffer}
+ * of {@code myhttpbin.history.capacity} entries of {@code myhttpbin.history.entry-size} bytes
+ * each, allocated at startup; older entries are overwritten. Credentials are not kept, the
+ * values of {@code Authorization}, {@code Proxy-Authorization} and {@code Cookie} are recorded
+ * as {@value CredentialHeaders#REDACTED}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "myhttpbin.history.enabled", matchIfMissing = true)
+public class RequestHistory {
+
+    private final HistoryBuffer buffer;
+
+    public RequestHistory(
+            @Value("${myhttpbin.history.capacity:1024}") int capacity,
+            @Value("${myhttpbin.history.entry-size:2KB}") DataSize entrySize,
+            MeterRegistry meterRegistry) {
+        if (entrySize.toBytes() <= 0 || entrySize.toBytes() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException(
+                    "myhttpbin.history.entry-size out of range: " + entrySize);
+        }
+        this.buffer = new HistoryBuffer(capacity, (int) entrySize.toBytes());
+
+        FunctionCounter.builder("myhttpbin.history.recorded", buffer, HistoryBuffer::recorded)
+                .description("Requests recorded in the request history")
+                .register(meterRegistry);
+        FunctionCounter.builder("myhttpbin.history.dropped", buffer, HistoryBuffer::dropped)
+                .description("Requests left out of the history while their slot was in use")
+                .register(meterRegistry);
+    }
+
+    public int capacity() {
+        return buffer.capacity();
+    }
+
+    public long recorded() {
+        return buffer.recorded();
+    }
+
+    public long dropped() {
+        return buffer.dropped();
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param timestampMillis when the request arrived, in milliseconds since the epoch
+     * @param bodyCrc32c CRC-32C of the body read by the endpoint, -1 if it read none
+     */
+    public void record(
+            HttpServletRequest request,
+            long timestampMillis,
+            int status,
+            long latencyNanos,
+            long bodySize,
+            long bodyCrc32c) {
+        HistoryBuffer.Slot slot = buffer.claim();
+        if (slot == null) {
+            return;
+        }
+        try {
+            slot.request(
+                    timestampMillis,
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    request.getQueryString());
+            Enumeration<String> names = request.getHeaderNames();
+            while (names.hasMoreElements()) {
+                String name = names.nextElement();
+                if (CredentialHeaders.isCredential(name)) {
+                    slot.header(name, CredentialHeaders.REDACTED);
+                    continue;
+                }
+                Enumeration<String> values = request.getHeaders(name);
+                while (values.hasMoreElements()) {
+                    slot.header(name, values.nextElement());
+                }
+            }
+            slot.response(status, latencyNanos, bodySize, bodyCrc32c);
+        } finally {
+            // Even half-filled, a slot left unpublished would drop every entry mapped to it
+            buffer.publish(slot);
+        }
+    }
+
+    /** Up to {@code limit} recorded requests matching {@code filter}, newest first. */
+    public List<HistoryEntry> find(Predicate<HistoryEntry> filter, int limit) {
+        return buffer.newestFirst(filter, limit);
+    }
+}
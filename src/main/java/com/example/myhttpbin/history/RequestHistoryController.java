@@ -0,0 +1,104 @@
+package com.example.myhttpbin.history;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Predicate;
+
+import com.example.myhttpbin.metrics.EndpointMetrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * {@code /history}, the requests recorded by {@link RequestHistoryFilter}, newest first.
+ *
+ * <p>{@code path} keeps the requests to that path or below it, {@code /delay} matches {@code
+ * /delay/2} but not {@code /delayed}; {@code status} is a status code or a class such as {@code
+ * 4xx}; {@code since} and {@code until} bound the arrival time, as ISO-8601 instants, {@code
+ * until} excluded.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "myhttpbin.history.enabled", matchIfMissing = true)
+public class RequestHistoryController {
+
+    private static final int DEFAULT_LIMIT = 100;
+
+    private final RequestHistory history;
+
+    private final EndpointMetrics endpointMetrics;
+
+    public RequestHistoryController(RequestHistory history, EndpointMetrics endpointMetrics) {
+        this.history = history;
+        this.endpointMetrics = endpointMetrics;
+    }
+
+    /** The history with the size of the ring and how many requests went through it. */
+    public record HistoryResponse(
+            int capacity, long recorded, long dropped, List<HistoryEntry> entries) {}
+
+    @GetMapping("/history")
+    public ResponseEntity<?> history(
+            @RequestParam(required = false) String path,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String since,
+            @RequestParam(required = false) String until,
+            @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        Predicate<HistoryEntry> filter;
+        try {
+            filter = pathFilter(path).and(statusFilter(status)).and(timeFilter(since, until));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(endpointMetrics.rejection("Invalid parameter", e.getMessage()));
+        }
+        if (limit <= 0) {
+            return ResponseEntity.badRequest()
+                    .body(endpointMetrics.rejection("Invalid limit", "Limit must be positive"));
+        }
+        return ResponseEntity.ok(
+                new HistoryResponse(
+                        history.capacity(),
+                        history.recorded(),
+                        history.dropped(),
+                        history.find(filter, limit)));
+    }
+
+    private static Predicate<HistoryEntry> pathFilter(String path) {
+        if (path == null || path.isEmpty()) {
+            return entry -> true;
+        }
+        String prefix = path.endsWith("/") ? path : path + "/";
+        return entry -> entry.path().equals(path) || entry.path().startsWith(prefix);
+    }
+
+    private static Predicate<HistoryEntry> statusFilter(String status) {
+        if (status == null || status.isEmpty()) {
+            return entry -> true;
+        }
+        if (status.length() == 3 && status.regionMatches(true, 1, "xx", 0, 2)) {
+            int statusClass = parseStatus(status.substring(0, 1));
+            return entry -> entry.status() / 100 == statusClass;
+        }
+        int code = parseStatus(status);
+        return entry -> entry.status() == code;
+    }
+
+    private static int parseStatus(String status) {
+        try {
+            return Integer.parseInt(status);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Status must be a code or a class such as 4xx");
+        }
+    }
+
+    private static Predicate<HistoryEntry> timeFilter(String since, String until) {
+        Instant from = since != null ? Instant.parse(since) : Instant.MIN;
+        Instant to = until != null ? Instant.parse(until) : Instant.MAX;
+        return entry -> !entry.timestamp().isBefore(from) && entry.timestamp().isBefore(to);
+    }
+}
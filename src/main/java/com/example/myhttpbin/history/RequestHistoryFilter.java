@@ -0,0 +1,204 @@
+package com.example.myhttpbin.history;
+
+import java.io.IOException;
+import java.util.zip.CRC32C;
+
+import com.example.myhttpbin.controller.DynamicDataController;
+import com.example.myhttpbin.echo.FormBody;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the requests handled by {@link DynamicDataController} in the {@link RequestHistory}
+ * once their response is complete: on return for synchronous requests, from an {@link
+ * AsyncListener} for delays and other asynchronous ones. The body is checksummed as the endpoint
+ * reads it, so it is neither buffered nor read twice; CRC-32C rather than a cryptographic digest,
+ * as it runs on the CPU's CRC instructions at a fraction of the cost and only has to tell bodies
+ * apart. Form posts, whose body the container parses itself, are checksummed as their {@link
+ * FormBody}. Disabled with {@code myhttpbin.history.enabled=false}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "myhttpbin.history.enabled", matchIfMissing = true)
+public class RequestHistoryFilter extends OncePerRequestFilter {
+
+    private final RequestHistory history;
+
+    public RequestHistoryFilter(RequestHistory history) {
+        this.history = history;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long timestampMillis = System.currentTimeMillis();
+        long start = System.nanoTime();
+        ChecksummingRequest checksumming = new ChecksummingRequest(request);
+        boolean failed = true;
+        try {
+            chain.doFilter(checksumming, response);
+            failed = false;
+        } finally {
+            if (isControllerRequest(request)) {
+                if (checksumming.checksum == null && FormBody.isForm(request)) {
+                    byte[] form = FormBody.encode(request);
+                    checksumming.update(form, 0, form.length);
+                }
+                if (!failed && request.isAsyncStarted()) {
+                    request.getAsyncContext()
+                            .addListener(
+                                    new CompletionListener(
+                                            checksumming, response, timestampMillis, start));
+                } else {
+                    // Exceptions become a 500 response after the filters have returned
+                    int status = failed ? 500 : response.getStatus();
+                    record(checksumming, status, timestampMillis, start);
+                }
+            }
+        }
+    }
+
+    private void record(ChecksummingRequest request, int status, long timestampMillis, long start) {
+        history.record(
+                request,
+                timestampMillis,
+                status,
+                System.nanoTime() - start,
+                request.bodySize,
+                request.checksum != null ? request.checksum.getValue() : -1);
+    }
+
+    private static boolean isControllerRequest(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                        instanceof HandlerMethod handler
+                && handler.getBeanType() == DynamicDataController.class;
+    }
+
+    /** Records an asynchronous request once its response has been completed. */
+    private final class CompletionListener implements AsyncListener {
+
+        private final ChecksummingRequest request;
+        private final HttpServletResponse response;
+        private final long timestampMillis;
+        private final long start;
+
+        CompletionListener(
+                ChecksummingRequest request,
+                HttpServletResponse response,
+                long timestampMillis,
+                long start) {
+            this.request = request;
+            this.response = response;
+            this.timestampMillis = timestampMillis;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(request, response.getStatus(), timestampMillis, start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {}
+
+        @Override
+        public void onError(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+    }
+
+    /** Counts and checksums the body bytes read through {@link #getInputStream()}. */
+    private static final class ChecksummingRequest extends HttpServletRequestWrapper {
+
+        private ServletInputStream inputStream;
+        private CRC32C checksum;
+        private long bodySize;
+
+        ChecksummingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new ChecksummingInputStream(super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        private void update(byte[] bytes, int offset, int length) {
+            if (checksum == null) {
+                checksum = new CRC32C();
+            }
+            checksum.update(bytes, offset, length);
+            bodySize += length;
+        }
+
+        private void update(int b) {
+            if (checksum == null) {
+                checksum = new CRC32C();
+            }
+            checksum.update(b);
+            bodySize++;
+        }
+
+        private final class ChecksummingInputStream extends ServletInputStream {
+
+            private final ServletInputStream in;
+
+            ChecksummingInputStream(ServletInputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b != -1) {
+                    update(b);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = in.read(bytes, offset, length);
+                if (read > 0) {
+                    update(bytes, offset, read);
+                }
+                return read;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.isFinished();
+            }
+
+            @Override
+            public boolean isReady() {
+                return in.isReady();
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                in.setReadListener(listener);
+            }
+        }
+    }
+}
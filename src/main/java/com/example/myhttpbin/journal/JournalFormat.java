@@ -0,0 +1,105 @@
+package com.example.myhttpbin.journal;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Binary layout of the journal, big-endian. A segment starts with the magic number and the
+ * format version, followed by records:
+ *
+ * <pre>
+ * int    length of the rest of the record, 0 past the last record of a segment
+ * long   arrival time, milliseconds since the epoch
+ * byte   flags, {@link #FLAG_BODY_TRUNCATED}
+ * string method, path, query (empty when the URL has none)
+ * short  number of headers, then a name and a value string per header
+ * int    body length, then the body bytes
+ * </pre>
+ *
+ * Strings are an unsigned short length followed by ISO-8859-1 bytes, the charset of header
+ * values; longer strings are cut and other characters replaced by {@code ?}.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x4d484a31; // "MHJ1"
+
+    static final int VERSION = 1;
+
+    static final int SEGMENT_HEADER_SIZE = 8;
+
+    static final String SEGMENT_PREFIX = "journal-";
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    static final int FLAG_BODY_TRUNCATED = 1;
+
+    private static final int MAX_STRING_LENGTH = 0xffff;
+
+    private JournalFormat() {}
+
+    /** File name of segment {@code index}, zero-padded so names sort by index. */
+    static String segmentName(long index) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Encodes a record, length prefix included, with the first {@code bodyLength} bytes of {@code
+     * body} and {@code headers} as alternating names and values.
+     */
+    static byte[] encode(
+            long timestampMillis,
+            HttpServletRequest request,
+            List<String> headers,
+            byte[] body,
+            int bodyLength,
+            boolean bodyTruncated) {
+        String method = request.getMethod();
+        String path = request.getRequestURI();
+        String query = request.getQueryString() != null ? request.getQueryString() : "";
+        int headerCount = Math.min(headers.size() / 2, MAX_STRING_LENGTH);
+        int length = 8 + 1 + stringSize(method) + stringSize(path) + stringSize(query) + 2 + 4;
+        for (int i = 0; i < headerCount * 2; i++) {
+            length += stringSize(headers.get(i));
+        }
+        length += bodyLength;
+
+        ByteBuffer record = ByteBuffer.allocate(4 + length);
+        record.putInt(length);
+        record.putLong(timestampMillis);
+        record.put((byte) (bodyTruncated ? FLAG_BODY_TRUNCATED : 0));
+        putString(record, method);
+        putString(record, path);
+        putString(record, query);
+        record.putShort((short) headerCount);
+        for (int i = 0; i < headerCount * 2; i++) {
+            putString(record, headers.get(i));
+        }
+        record.putInt(bodyLength);
+        record.put(body, 0, bodyLength);
+        return record.array();
+    }
+
+    private static int stringSize(String value) {
+        return 2 + Math.min(value.length(), MAX_STRING_LENGTH);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        int length = Math.min(value.length(), MAX_STRING_LENGTH);
+        buffer.putShort((short) length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            buffer.put(c <= 0xff ? (byte) c : (byte) '?');
+        }
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (buffer.get() & 0xff);
+        }
+        return new String(chars);
+    }
+}
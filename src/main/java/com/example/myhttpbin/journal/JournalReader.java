@@ -0,0 +1,140 @@
+package com.example.myhttpbin.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Reads the records of a journal directory in the order they were appended, segment after
+ * segment. Each segment is mapped read-only and record bodies are views of the mapping, so bodies
+ * are never copied; a segment stays mapped while any of its bodies is referenced.
+ *
+ * <p>Meant for the segments of a stopped application or the ones a running one has completed;
+ * the segment being written is read up to its last complete record.
+ */
+public class JournalReader implements Iterable<JournalRecord> {
+
+    private final List<Path> segments;
+
+    public JournalReader(Path directory) throws IOException {
+        this.segments = segments(directory);
+    }
+
+    /** The segment files of {@code directory}, oldest first. */
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(JournalReader::isSegment).sorted().toList();
+        }
+    }
+
+    static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(
+                name.substring(
+                        JournalFormat.SEGMENT_PREFIX.length(),
+                        name.length() - JournalFormat.SEGMENT_SUFFIX.length()));
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(JournalFormat.SEGMENT_PREFIX)
+                && name.endsWith(JournalFormat.SEGMENT_SUFFIX)
+                && name.length() == JournalFormat.segmentName(0).length();
+    }
+
+    public List<Path> segments() {
+        return segments;
+    }
+
+    /** Iterates over all records, mapping each segment as it is reached. */
+    @Override
+    public Iterator<JournalRecord> iterator() {
+        return new Iterator<>() {
+
+            private int nextSegment;
+            private ByteBuffer segment;
+
+            @Override
+            public boolean hasNext() {
+                while (segment == null || !hasRecord(segment)) {
+                    if (nextSegment == segments.size()) {
+                        return false;
+                    }
+                    segment = map(segments.get(nextSegment++));
+                }
+                return true;
+            }
+
+            @Override
+            public JournalRecord next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return read(segment);
+            }
+        };
+    }
+
+    private static ByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (segment.remaining() < JournalFormat.SEGMENT_HEADER_SIZE
+                    || segment.getInt() != JournalFormat.MAGIC) {
+                throw new IOException("Not a journal segment: " + path);
+            }
+            int version = segment.getInt();
+            if (version != JournalFormat.VERSION) {
+                throw new IOException("Unsupported journal version " + version + ": " + path);
+            }
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean hasRecord(ByteBuffer segment) {
+        return segment.remaining() >= 4 && segment.getInt(segment.position()) > 0;
+    }
+
+    private static JournalRecord read(ByteBuffer segment) {
+        int length = segment.getInt();
+        int end = segment.position() + length;
+        long timestampMillis = segment.getLong();
+        byte flags = segment.get();
+        String method = JournalFormat.getString(segment);
+        String path = JournalFormat.getString(segment);
+        String query = JournalFormat.getString(segment);
+        int headerCount = Short.toUnsignedInt(segment.getShort());
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = JournalFormat.getString(segment);
+            headers.computeIfAbsent(name, key -> new ArrayList<>())
+                    .add(JournalFormat.getString(segment));
+        }
+        int bodyLength = segment.getInt();
+        ByteBuffer body = segment.slice(segment.position(), bodyLength).asReadOnlyBuffer();
+        segment.position(end);
+        return new JournalRecord(
+                timestampMillis,
+                method,
+                path,
+                query.isEmpty() ? null : query,
+                headers,
+                body,
+                (flags & JournalFormat.FLAG_BODY_TRUNCATED) != 0);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.myhttpbin.journal;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request read back from the journal. {@code body} is a read-only view of the mapped segment,
+ * not a copy; it holds the bytes the endpoint read, cut at {@code myhttpbin.journal.max-body-size}
+ * when {@code bodyTruncated}. {@code query} is {@code null} when the URL has none.
+ */
+public record JournalRecord(
+        long timestampMillis,
+        String method,
+        String path,
+        String query,
+        Map<String, List<String>> headers,
+        ByteBuffer body,
+        boolean bodyTruncated) {
+
+    /** Path and query, as they appeared in the request line. */
+    public String uri() {
+        return query != null ? path + "?" + query : path;
+    }
+}
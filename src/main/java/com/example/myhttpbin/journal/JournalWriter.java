@@ -0,0 +1,123 @@
+package com.example.myhttpbin.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Appends encoded records to memory-mapped segment files of a fixed size, from a single thread.
+ * A record that does not fit in the rest of the segment starts a new one; past {@code
+ * maxSegments} the oldest segment is deleted. Appending is a copy into the mapping, the page
+ * cache writes it out, so records survive the process but not the machine until {@link #close}.
+ *
+ * <p>A new writer starts a new segment after the existing ones of the directory, it never
+ * appends to them. Records hold whole requests, so the directory and its segments are only
+ * accessible to their owner where the file system has POSIX permissions.
+ */
+class JournalWriter implements Closeable {
+
+    private static final Set<PosixFilePermission> OWNER_DIRECTORY =
+            PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_FILE =
+            PosixFilePermissions.fromString("rw-------");
+
+    private final Path directory;
+    private final boolean posix;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Deque<Path> segments = new ArrayDeque<>();
+    private long nextIndex;
+    private MappedByteBuffer segment;
+
+    JournalWriter(Path directory, int segmentSize, int maxSegments) throws IOException {
+        if (segmentSize <= JournalFormat.SEGMENT_HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        if (maxSegments <= 0) {
+            throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+        }
+        this.directory = directory;
+        this.posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        if (posix) {
+            Files.createDirectories(
+                    directory, PosixFilePermissions.asFileAttribute(OWNER_DIRECTORY));
+            // Also when it existed, such as a directory left by an earlier version
+            Files.setPosixFilePermissions(directory, OWNER_DIRECTORY);
+        } else {
+            Files.createDirectories(directory);
+        }
+        for (Path existing : JournalReader.segments(directory)) {
+            segments.add(existing);
+        }
+        if (!segments.isEmpty()) {
+            nextIndex = JournalReader.segmentIndex(segments.getLast()) + 1;
+        }
+    }
+
+    /**
+     * Appends {@code record}, as encoded by {@link JournalFormat#encode}. Returns {@code false}
+     * when it is larger than a whole segment.
+     */
+    boolean append(byte[] record) throws IOException {
+        if (record.length > segmentSize - JournalFormat.SEGMENT_HEADER_SIZE) {
+            return false;
+        }
+        if (segment == null || segment.remaining() < record.length) {
+            roll();
+        }
+        int start = segment.position();
+        // Length last, a reader of the live segment sees either no record or a whole one
+        segment.put(start + 4, record, 4, record.length - 4);
+        segment.putInt(start, record.length - 4);
+        segment.position(start + record.length);
+        return true;
+    }
+
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.force();
+        }
+        Path path = directory.resolve(JournalFormat.segmentName(nextIndex++));
+        FileAttribute<?>[] attributes =
+                posix
+                        ? new FileAttribute<?>[] {PosixFilePermissions.asFileAttribute(OWNER_FILE)}
+                        : new FileAttribute<?>[0];
+        try (FileChannel channel =
+                FileChannel.open(
+                        path,
+                        EnumSet.of(
+                                StandardOpenOption.CREATE_NEW,
+                                StandardOpenOption.READ,
+                                StandardOpenOption.WRITE),
+                        attributes)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment.putInt(JournalFormat.MAGIC).putInt(JournalFormat.VERSION);
+        segments.add(path);
+        while (segments.size() > maxSegments) {
+            Files.deleteIfExists(segments.removeFirst());
+        }
+    }
+
+    /** Writes the current segment out to the file. */
+    @Override
+    public void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+}
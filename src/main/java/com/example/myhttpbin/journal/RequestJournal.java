@@ -0,0 +1,199 @@
+package com.example.myhttpbin.journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.myhttpbin.echo.CredentialHeaders;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Persistent journal of the requests recorded by {@link RequestJournalFilter}, enabled with
+ * {@code myhttpbin.journal.enabled=true} and read back with {@link JournalReader}.
+ *
+ * <p>Request threads encode their record and hand it to a lock-free queue; a single writer thread
+ * drains the queue in batches into the memory-mapped segments of a {@link JournalWriter}, so no
+ * request waits on the disk or on another request. Records waiting for the writer are capped at
+ * {@code myhttpbin.journal.queue-size} bytes, beyond which they are dropped and counted. Segments
+ * of {@code myhttpbin.journal.segment-size} are kept up to {@code myhttpbin.journal.max-segments}
+ * in {@code myhttpbin.journal.directory}, readable by its owner only; bodies are cut at {@code
+ * myhttpbin.journal.max-body-size}.
+ *
+ * <p>Credential headers are journaled as {@value CredentialHeaders#REDACTED}, and left out of a
+ * replay, unless {@code myhttpbin.journal.keep-credentials=true} for targets that need them.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "myhttpbin.journal.enabled", havingValue = "true")
+public class RequestJournal implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestJournal.class);
+
+    // Records written per pass, between two checks of whether the writer should stop
+    private static final int MAX_BATCH = 1024;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final JournalWriter writer;
+    private final int maxBodySize;
+    private final boolean keepCredentials;
+    private final long maxQueuedBytes;
+    private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+
+    public RequestJournal(
+            @Value("${myhttpbin.journal.directory:${java.io.tmpdir}/myhttpbin-journal}")
+                    Path directory,
+            @Value("${myhttpbin.journal.segment-size:64MB}") DataSize segmentSize,
+            @Value("${myhttpbin.journal.max-segments:16}") int maxSegments,
+            @Value("${myhttpbin.journal.max-body-size:64KB}") DataSize maxBodySize,
+            @Value("${myhttpbin.journal.queue-size:16MB}") DataSize queueSize,
+            @Value("${myhttpbin.journal.keep-credentials:false}") boolean keepCredentials,
+            MeterRegistry meterRegistry)
+            throws IOException {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "myhttpbin.journal.segment-size out of range: " + segmentSize);
+        }
+        if (maxBodySize.toBytes() < 0 || maxBodySize.toBytes() >= segmentSize.toBytes()) {
+            throw new IllegalArgumentException(
+                    "myhttpbin.journal.max-body-size must be below the segment size: "
+                            + maxBodySize);
+        }
+        this.writer = new JournalWriter(directory, (int) segmentSize.toBytes(), maxSegments);
+        this.maxBodySize = (int) maxBodySize.toBytes();
+        this.keepCredentials = keepCredentials;
+        this.maxQueuedBytes = queueSize.toBytes();
+
+        FunctionCounter.builder("myhttpbin.journal.appended", appended, LongAdder::sum)
+                .description("Requests written to the journal")
+                .register(meterRegistry);
+        FunctionCounter.builder("myhttpbin.journal.dropped", dropped, LongAdder::sum)
+                .description("Requests left out of the journal, queue full or write failed")
+                .register(meterRegistry);
+        Gauge.builder("myhttpbin.journal.queued", queuedBytes, AtomicLong::get)
+                .baseUnit("bytes")
+                .description("Encoded requests waiting for the journal writer")
+                .register(meterRegistry);
+
+        this.writerThread = new Thread(this::writeLoop, "request-journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /** Largest body kept per request, in bytes. */
+    public int maxBodySize() {
+        return maxBodySize;
+    }
+
+    public long appended() {
+        return appended.sum();
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Queues a request for the writer, without waiting.
+     *
+     * @param body the first {@code bodyLength} bytes of the body read by the endpoint
+     * @param bodyTruncated whether the endpoint read more than {@link #maxBodySize()}
+     * @return {@code false} if the request was dropped as the queue is full
+     */
+    public boolean append(
+            HttpServletRequest request,
+            long timestampMillis,
+            byte[] body,
+            int bodyLength,
+            boolean bodyTruncated) {
+        if (queuedBytes.get() >= maxQueuedBytes || !running) {
+            dropped.increment();
+            return false;
+        }
+        List<String> headers = new ArrayList<>();
+        Enumeration<String> names = request.getHeaderNames();
+        while (names.hasMoreElements()) {
+            String name = names.nextElement();
+            if (!keepCredentials && CredentialHeaders.isCredential(name)) {
+                headers.add(name);
+                headers.add(CredentialHeaders.REDACTED);
+                continue;
+            }
+            Enumeration<String> values = request.getHeaders(name);
+            while (values.hasMoreElements()) {
+                headers.add(name);
+                headers.add(values.nextElement());
+            }
+        }
+        byte[] record =
+                JournalFormat.encode(
+                        timestampMillis, request, headers, body, bodyLength, bodyTruncated);
+        queuedBytes.addAndGet(record.length);
+        queue.add(record);
+        return true;
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            int written = 0;
+            byte[] record;
+            while (written < MAX_BATCH && (record = queue.poll()) != null) {
+                queuedBytes.addAndGet(-record.length);
+                write(record);
+                written++;
+            }
+            if (written == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void write(byte[] record) {
+        try {
+            if (writer.append(record)) {
+                appended.increment();
+                return;
+            }
+            log.warn("Request of {} bytes larger than a journal segment, dropped", record.length);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write to the request journal", e);
+        }
+        dropped.increment();
+    }
+
+    /** Writes the queued requests, then the current segment out to its file. */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        writerThread.join();
+        writer.close();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.myhttpbin.journal;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.example.myhttpbin.controller.DynamicDataController;
+import com.example.myhttpbin.echo.FormBody;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Appends the requests handled by {@link DynamicDataController} to the {@link RequestJournal}.
+ * The body is the part the endpoint read, copied as it is read up to the journal's body size
+ * limit; form posts, whose body the container parses itself, are journaled with their {@link
+ * FormBody}. A request is journaled as soon as the endpoint returns, asynchronous ones too, since
+ * their body has been read by then.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "myhttpbin.journal.enabled", havingValue = "true")
+public class RequestJournalFilter extends OncePerRequestFilter {
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final RequestJournal journal;
+
+    public RequestJournalFilter(RequestJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long timestampMillis = System.currentTimeMillis();
+        CapturingRequest capturing = new CapturingRequest(request, journal.maxBodySize());
+        try {
+            chain.doFilter(capturing, response);
+        } finally {
+            if (isControllerRequest(request)) {
+                if (capturing.bodyLength == 0 && FormBody.isForm(request)) {
+                    byte[] form = FormBody.encode(request);
+                    capturing.capture(form, 0, form.length);
+                }
+                journal.append(
+                        request,
+                        timestampMillis,
+                        capturing.body,
+                        capturing.bodyLength,
+                        capturing.bodyTruncated);
+            }
+        }
+    }
+
+    private static boolean isControllerRequest(HttpServletRequest request) {
+        return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+                        instanceof HandlerMethod handler
+                && handler.getBeanType() == DynamicDataController.class;
+    }
+
+    /** Copies the body bytes read through {@link #getInputStream()}, up to a limit. */
+    private static final class CapturingRequest extends HttpServletRequestWrapper {
+
+        private final int maxBodySize;
+        private ServletInputStream inputStream;
+        private byte[] body = NO_BODY;
+        private int bodyLength;
+        private boolean bodyTruncated;
+
+        CapturingRequest(HttpServletRequest request, int maxBodySize) {
+            super(request);
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new CapturingInputStream(super.getInputStream());
+            }
+            return inputStream;
+        }
+
+        private void capture(byte[] bytes, int offset, int length) {
+            int kept = Math.min(length, maxBodySize - bodyLength);
+            if (kept < length) {
+                bodyTruncated = true;
+            }
+            if (kept <= 0) {
+                return;
+            }
+            if (bodyLength + kept > body.length) {
+                int capacity = Math.max(bodyLength + kept, Math.max(256, body.length * 2));
+                body = Arrays.copyOf(body, Math.min(capacity, maxBodySize));
+            }
+            System.arraycopy(bytes, offset, body, bodyLength, kept);
+            bodyLength += kept;
+        }
+
+        private void capture(int b) {
+            if (bodyLength == body.length) {
+                if (bodyLength == maxBodySize) {
+                    bodyTruncated = true;
+                    return;
+                }
+                body = Arrays.copyOf(body, Math.min(Math.max(256, body.length * 2), maxBodySize));
+            }
+            body[bodyLength++] = (byte) b;
+        }
+
+        private final class CapturingInputStream extends ServletInputStream {
+
+            private final ServletInputStream in;
+
+            CapturingInputStream(ServletInputStream in) {
+                this.in = in;
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = in.read();
+                if (b != -1) {
+                    capture(b);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = in.read(bytes, offset, length);
+                if (read > 0) {
+                    capture(bytes, offset, read);
+                }
+                return read;
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.isFinished();
+            }
+
+            @Override
+            public boolean isReady() {
+                return in.isReady();
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                in.setReadListener(listener);
+            }
+        }
+    }
+}
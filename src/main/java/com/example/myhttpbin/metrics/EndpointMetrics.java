@@ -0,0 +1,93 @@
+package com.example.myhttpbin.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.myhttpbin.controller.ConstantError;
+import com.example.myhttpbin.dto.ErrorResponse;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Counters of the endpoints on top of the {@code http.server.requests} latencies: bytes produced
+ * by the payload endpoints and rejected requests by error. Requests only add to {@link
+ * LongAdder}s, which spread concurrent updates over cells instead of contending on one value; the
+ * meters read their sums when they are published. Sleeping delays are the {@code
+ * myhttpbin.delay.timer.pending} gauge of the timer wheel.
+ */
+@Component
+public class EndpointMetrics {
+
+    /** The endpoints whose response bytes are counted, tagged with their URI template. */
+    public enum PayloadEndpoint {
+        BYTES("/bytes/{n}"),
+        STREAM_BYTES("/stream-bytes/{n}"),
+        CHARS("/chars/{n}");
+
+        private final String uri;
+
+        PayloadEndpoint(String uri) {
+            this.uri = uri;
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<PayloadEndpoint, LongAdder> responseBytes =
+            new EnumMap<>(PayloadEndpoint.class);
+    private final ConcurrentMap<String, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    public EndpointMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (PayloadEndpoint endpoint : PayloadEndpoint.values()) {
+            LongAdder bytes = new LongAdder();
+            responseBytes.put(endpoint, bytes);
+            FunctionCounter.builder("myhttpbin.response.bytes", bytes, LongAdder::sum)
+                    .baseUnit("bytes")
+                    .description("Response bytes produced by the payload endpoints")
+                    .tag("uri", endpoint.uri)
+                    .register(meterRegistry);
+        }
+        // Constant errors up front, the others as they first occur
+        for (ConstantError error : ConstantError.values()) {
+            rejectionCounter(error.error());
+        }
+    }
+
+    public void recordResponseBytes(PayloadEndpoint endpoint, long n) {
+        responseBytes.get(endpoint).add(n);
+    }
+
+    /** Counts a rejection with {@code error}, the {@code error} field of its response. */
+    public void recordRejection(String error) {
+        rejectionCounter(error).increment();
+    }
+
+    /** The {@link ErrorResponse} of a rejected request, counted as it is created. */
+    public ErrorResponse rejection(String error, String message) {
+        recordRejection(error);
+        return new ErrorResponse(error, message);
+    }
+
+    private LongAdder rejectionCounter(String error) {
+        LongAdder counter = rejections.get(error);
+        if (counter != null) {
+            return counter;
+        }
+        return rejections.computeIfAbsent(
+                error,
+                key -> {
+                    LongAdder rejected = new LongAdder();
+                    FunctionCounter.builder("myhttpbin.rejections", rejected, LongAdder::sum)
+                            .description("Requests rejected with an error response")
+                            .tag("error", key)
+                            .register(meterRegistry);
+                    return rejected;
+                });
+    }
+}
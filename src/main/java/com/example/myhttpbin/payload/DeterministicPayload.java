@@ -0,0 +1,137 @@
+package com.example.myhttpbin.payload;
+
+import java.io.InputStream;
+
+import com.example.myhttpbin.random.CounterRandom;
+
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * A document whose every byte is a pure function of its position. Reading starts wherever the
+ * stream is skipped to, so serving a range of a document of many GB only computes the bytes in
+ * that range and the prefix is never generated.
+ *
+ * <p>Being a {@link org.springframework.core.io.Resource} with a known length, it gets Spring
+ * MVC's {@code Range} handling, single and multipart/byteranges, for free.
+ */
+public final class DeterministicPayload extends AbstractResource {
+
+    private static final int LETTERS = 26;
+
+    private final String description;
+    private final long length;
+    private final Content content;
+
+    private DeterministicPayload(String description, long length, Content content) {
+        this.description = description;
+        this.length = length;
+        this.content = content;
+    }
+
+    /** The letters {@code a} to {@code z} repeated, like httpbin's {@code /range}. */
+    public static DeterministicPayload letters(long length) {
+        return new DeterministicPayload(
+                "letters [" + length + "]", length, DeterministicPayload::fillLetters);
+    }
+
+    /** Random bytes of the {@link CounterRandom} stream keyed by {@code seed}. */
+    public static DeterministicPayload seeded(long seed, long length) {
+        return new DeterministicPayload(
+                "seeded random [" + seed + ", " + length + "]",
+                length,
+                (position, buffer, offset, count) ->
+                        fillSeeded(seed, position, buffer, offset, count));
+    }
+
+    @Override
+    public boolean exists() {
+        return true;
+    }
+
+    @Override
+    public long contentLength() {
+        return length;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return new PositionedInputStream();
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    private static void fillLetters(long position, byte[] buffer, int offset, int count) {
+        int letter = (int) (position % LETTERS);
+        for (int i = offset, end = offset + count; i < end; i++) {
+            buffer[i] = (byte) ('a' + letter);
+            if (++letter == LETTERS) {
+                letter = 0;
+            }
+        }
+    }
+
+    private static void fillSeeded(long seed, long position, byte[] buffer, int offset, int count) {
+        long index = position >>> 3;
+        int shift = (int) (position & 7) << 3;
+        long value = CounterRandom.valueAt(seed, index);
+        for (int i = offset, end = offset + count; i < end; i++) {
+            // Little-endian bytes of consecutive values, a new value every eight positions
+            buffer[i] = (byte) (value >>> shift);
+            shift += 8;
+            if (shift == 64) {
+                shift = 0;
+                value = CounterRandom.valueAt(seed, ++index);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Content {
+        void fill(long position, byte[] buffer, int offset, int count);
+    }
+
+    private final class PositionedInputStream extends InputStream {
+
+        private long position;
+
+        @Override
+        public int read() {
+            if (position >= length) {
+                return -1;
+            }
+            byte[] single = new byte[1];
+            content.fill(position++, single, 0, 1);
+            return single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) {
+            if (count == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            int read = (int) Math.min(count, length - position);
+            content.fill(position, buffer, offset, read);
+            position += read;
+            return read;
+        }
+
+        /** Constant time, nothing before the new position is computed. */
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, length - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length - position);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.myhttpbin.payload;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.apache.catalina.Globals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Payloads served from a scratch file with kernel sendfile, so the data never passes through the
+ * JVM. A response of {@code n} bytes is the first {@code n} bytes of a single file of {@code
+ * myhttpbin.payload.file.max-size}, reused across requests and restarts; longer responses are the
+ * file sent again from its start, as often as needed.
+ *
+ * <p>The file is provisioned once in the background when the application starts, so no request
+ * ever writes to the disk. It is either left sparse and reads as zeros without using any disk, or
+ * filled with random bytes, which costs one pass of disk writes of the whole file the first time
+ * and wants a smaller size. Its size defaults to the 64GB {@code /stream-bytes} cap, so every
+ * download goes out with sendfile. The directory and fill mode are set with {@code
+ * myhttpbin.payload.file.directory} and {@code myhttpbin.payload.file.fill}.
+ */
+@Component
+public class FilePayloadStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FilePayloadStore.class);
+
+    private static final int FILL_CHUNK_SIZE = 1024 * 1024;
+
+    private final Path file;
+    private final boolean sparse;
+    private final long size;
+    private final CompletableFuture<Path> provisioned = new CompletableFuture<>();
+
+    public FilePayloadStore(
+            @Value("${myhttpbin.payload.file.directory:${java.io.tmpdir}/myhttpbin-payloads}")
+                    Path directory,
+            @Value("${myhttpbin.payload.file.fill:sparse}") String fill,
+            @Value("${myhttpbin.payload.file.max-size:64GB}") DataSize maxSize) {
+        this.sparse =
+                switch (fill.toLowerCase(Locale.ROOT)) {
+                    case "random" -> false;
+                    case "sparse" -> true;
+                    default ->
+                            throw new IllegalArgumentException(
+                                    "myhttpbin.payload.file.fill must be random or sparse: "
+                                            + fill);
+                };
+        if (maxSize.toBytes() <= 0) {
+            throw new IllegalArgumentException(
+                    "myhttpbin.payload.file.max-size must be positive: " + maxSize);
+        }
+        this.file = directory.resolve(sparse ? "sparse.bin" : "random.bin");
+        this.size = maxSize.toBytes();
+
+        Thread provisioner = new Thread(this::provision, "payload-file");
+        provisioner.setDaemon(true);
+        provisioner.start();
+    }
+
+    /** Size of the file, beyond which payloads repeat it. */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Serves {@code n} bytes of the file. On Tomcat a payload no larger than the file is handed
+     * to the connector, which sends it with {@code FileChannel.transferTo} once the handler
+     * returns; otherwise, and elsewhere, it is copied through the response stream, the file
+     * repeated for as long as needed, with a warning as it passes through the heap.
+     *
+     * @return {@code true} if the transfer was handed to the connector and has not happened yet
+     */
+    public boolean serve(HttpServletRequest request, HttpServletResponse response, long n)
+            throws IOException {
+        Path path = file();
+        response.setContentLengthLong(n);
+        // Tomcat sends a single region of a file
+        if (n <= size
+                && Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, path.toString());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, 0L);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, n);
+            return true;
+        }
+
+        log.warn(
+                "Copying {} bytes of payload file {} through the heap: {}",
+                n,
+                path,
+                n > size
+                        ? "larger than myhttpbin.payload.file.max-size"
+                        : "the server does not support sendfile");
+        OutputStream out = response.getOutputStream();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            for (long sent = 0; sent < n; ) {
+                long position = sent % size;
+                sent += channel.transferTo(position, Math.min(size - position, n - sent), target);
+            }
+        }
+        out.flush();
+        return false;
+    }
+
+    /**
+     * The file, at least {@link #size()} bytes long. Waits for it to be provisioned if the
+     * application has only just started.
+     */
+    public Path file() throws IOException {
+        try {
+            return provisioned.join();
+        } catch (CompletionException e) {
+            throw new IOException("Payload file " + file + " could not be provisioned", e);
+        }
+    }
+
+    private void provision() {
+        try {
+            Files.createDirectories(file.getParent());
+            long existing = Files.exists(file) ? Files.size(file) : 0;
+            if (existing < size) {
+                long start = System.nanoTime();
+                try (FileChannel channel =
+                        FileChannel.open(
+                                file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    if (sparse) {
+                        // Writing the last byte leaves a hole in front of it
+                        channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+                    } else {
+                        appendRandom(channel, existing, size);
+                    }
+                }
+                log.info(
+                        "Grew payload file {} from {} to {} bytes in {} ms",
+                        file,
+                        existing,
+                        size,
+                        (System.nanoTime() - start) / 1_000_000);
+            }
+            provisioned.complete(file);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not provision payload file {}", file, e);
+            provisioned.completeExceptionally(e);
+        }
+    }
+
+    private static void appendRandom(FileChannel channel, long from, long to) throws IOException {
+        SplittableRandom random = new SplittableRandom();
+        byte[] chunk = new byte[FILL_CHUNK_SIZE];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(FILL_CHUNK_SIZE);
+        for (long position = from; position < to; ) {
+            int length = (int) Math.min(chunk.length, to - position);
+            random.nextBytes(chunk);
+            buffer.clear();
+            buffer.put(chunk, 0, length).flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.myhttpbin.payload;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bytes served and time spent writing them, per {@link PayloadSource}. Dividing the byte count
+ * by the write time of a source gives its throughput, which is how generated, pooled and file
+ * payloads are compared.
+ *
+ * <p>Sendfile transfers run on the connector after the handler has returned, so they only count
+ * towards {@code myhttpbin.payload.bytes}; compare their rate under load instead.
+ */
+@Component
+public class PayloadMetrics {
+
+    private final Map<PayloadSource, Counter> bytes = new EnumMap<>(PayloadSource.class);
+    private final Map<PayloadSource, Timer> writes = new EnumMap<>(PayloadSource.class);
+
+    public PayloadMetrics(MeterRegistry meterRegistry) {
+        for (PayloadSource source : PayloadSource.values()) {
+            String tag = source.name().toLowerCase(Locale.ROOT);
+            bytes.put(
+                    source,
+                    Counter.builder("myhttpbin.payload.bytes")
+                            .baseUnit("bytes")
+                            .description("Payload bytes served")
+                            .tag("source", tag)
+                            .register(meterRegistry));
+            writes.put(
+                    source,
+                    Timer.builder("myhttpbin.payload.write")
+                            .description("Time spent producing and writing payloads")
+                            .tag("source", tag)
+                            .register(meterRegistry));
+        }
+    }
+
+    /** Records a payload written by the handler, which started at {@code startNanos}. */
+    public void recordWrite(PayloadSource source, long n, long startNanos) {
+        bytes.get(source).increment(n);
+        writes.get(source).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Records a payload handed to the connector to be sent after the handler returns. */
+    public void recordHandoff(PayloadSource source, long n) {
+        bytes.get(source).increment(n);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.myhttpbin.payload;
+
+import java.util.Locale;
+
+/** Where the body of a random payload endpoint comes from. */
+public enum PayloadSource {
+    /** Freshly generated for every request. */
+    GENERATE,
+    /** Sliced out of the pre-generated {@link RandomContentPool}. */
+    POOL,
+    /** Sent with sendfile from the scratch file of the {@link FilePayloadStore}. */
+    FILE;
+
+    public static PayloadSource fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown source: " + name);
+        }
+    }
+}
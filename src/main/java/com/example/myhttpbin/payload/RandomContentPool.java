@@ -0,0 +1,135 @@
+package com.example.myhttpbin.payload;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ObjIntConsumer;
+
+import com.example.myhttpbin.random.Alphabet;
+
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Random bytes and alphanumeric characters generated once at startup into off-heap buffers. A
+ * response is served as slices of the pool starting at a random offset and wrapping around at
+ * the end, so nothing is generated or allocated on the heap per request.
+ *
+ * <p>The content only looks random: two responses can share bytes, and payloads larger than the
+ * pool repeat. The size of each buffer is set with {@code myhttpbin.pool.size}.
+ */
+@Component
+public class RandomContentPool {
+
+    private static final Logger log = LoggerFactory.getLogger(RandomContentPool.class);
+
+    private static final int FILL_CHUNK_SIZE = 64 * 1024;
+
+    private final ByteBuffer bytes;
+    private final ByteBuffer chars;
+
+    public RandomContentPool(@Value("${myhttpbin.pool.size:16MB}") DataSize size) {
+        if (size.toBytes() <= 0 || size.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("myhttpbin.pool.size out of range: " + size);
+        }
+        int capacity = (int) size.toBytes();
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom();
+        this.bytes = populate(capacity, (chunk, length) -> random.nextBytes(chunk));
+        this.chars =
+                populate(
+                        capacity,
+                        (chunk, length) -> Alphabet.ALPHANUMERIC.fill(random, chunk, length));
+        log.info(
+                "Populated {} random content pools in {} ms",
+                size,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public int size() {
+        return bytes.capacity();
+    }
+
+    /** Writes {@code n} pooled random bytes. */
+    public void writeBytes(OutputStream out, long n) throws IOException {
+        writeSlices(bytes, out, n);
+    }
+
+    /** Writes {@code n} pooled alphanumeric characters as ASCII. */
+    public void writeChars(OutputStream out, long n) throws IOException {
+        writeSlices(chars, out, n);
+    }
+
+    /** {@code n} pooled random bytes as read-only slices, for writers that take buffers. */
+    public Iterable<ByteBuffer> byteSlices(long n) {
+        return slices(bytes, n);
+    }
+
+    /** {@code n} pooled alphanumeric ASCII characters as read-only slices. */
+    public Iterable<ByteBuffer> charSlices(long n) {
+        return slices(chars, n);
+    }
+
+    private static void writeSlices(ByteBuffer pool, OutputStream out, long n)
+            throws IOException {
+        for (ByteBuffer slice : slices(pool, n)) {
+            write(out, slice);
+        }
+        out.flush();
+    }
+
+    /** Slices starting at a random offset, each iteration picks a new one. */
+    private static Iterable<ByteBuffer> slices(ByteBuffer pool, long n) {
+        return () ->
+                new Iterator<>() {
+                    private int offset = ThreadLocalRandom.current().nextInt(pool.capacity());
+                    private long remaining = n;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining > 0;
+                    }
+
+                    @Override
+                    public ByteBuffer next() {
+                        if (remaining <= 0) {
+                            throw new NoSuchElementException();
+                        }
+                        int length = (int) Math.min(pool.capacity() - offset, remaining);
+                        ByteBuffer slice = pool.slice(offset, length);
+                        remaining -= length;
+                        offset = 0;
+                        return slice;
+                    }
+                };
+    }
+
+    private static void write(OutputStream out, ByteBuffer slice) throws IOException {
+        if (out instanceof CoyoteOutputStream coyote) {
+            // Tomcat copies straight from the buffer into its socket buffer
+            coyote.write(slice);
+        } else {
+            Channels.newChannel(out).write(slice);
+        }
+    }
+
+    private static ByteBuffer populate(int capacity, ObjIntConsumer<byte[]> filler) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity);
+        byte[] chunk = new byte[FILL_CHUNK_SIZE];
+        while (buffer.hasRemaining()) {
+            int length = Math.min(chunk.length, buffer.remaining());
+            filler.accept(chunk, length);
+            buffer.put(chunk, 0, length);
+        }
+        return buffer.flip().asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.myhttpbin.random;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * Character sets for random text. Text is produced in bulk: a buffer is filled with random bytes
+ * and every byte is mapped to a character through a 256-entry lookup table. Byte values in the
+ * incomplete last cycle of the alphabet map to nothing and are skipped, so every character is
+ * equally likely.
+ */
+public enum Alphabet {
+    ALPHANUMERIC("abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789"),
+    HEX("0123456789abcdef"),
+    BASE32("ABCDEFGHIJKLMNOPQRSTUVWXYZ234567"),
+    BASE64URL("ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"),
+    NUMERIC("0123456789"),
+    LOWERCASE("abcdefghijklmnopqrstuvwxyz");
+
+    // Marks byte values that are rejected, no alphabet contains NUL
+    private static final byte REJECTED = 0;
+
+    private final byte[] table = new byte[256];
+
+    Alphabet(String characters) {
+        byte[] symbols = characters.getBytes(StandardCharsets.US_ASCII);
+        int accepted = 256 - 256 % symbols.length;
+        for (int value = 0; value < accepted; value++) {
+            table[value] = symbols[value % symbols.length];
+        }
+    }
+
+    /**
+     * Fills {@code buffer[0, length)} with random characters of this alphabet as ASCII bytes.
+     * Random bytes are written into the buffer itself and compacted in place, so no scratch buffer
+     * is needed.
+     */
+    public void fill(RandomGenerator random, byte[] buffer, int length) {
+        int filled = 0;
+        while (filled < length) {
+            nextBytes(random, buffer, filled, length);
+            int write = filled;
+            for (int read = filled; read < length; read++) {
+                byte symbol = table[buffer[read] & 0xff];
+                if (symbol != REJECTED) {
+                    buffer[write++] = symbol;
+                }
+            }
+            filled = write;
+        }
+    }
+
+    private static void nextBytes(RandomGenerator random, byte[] buffer, int from, int to) {
+        if (from == 0 && to == buffer.length) {
+            // Bulk fill, a single call even for the synchronized SecureRandom
+            random.nextBytes(buffer);
+            return;
+        }
+        int i = from;
+        while (i < to) {
+            long bits = random.nextLong();
+            for (int n = Math.min(to - i, Long.BYTES); n-- > 0; bits >>>= Byte.SIZE) {
+                buffer[i++] = (byte) bits;
+            }
+        }
+    }
+
+    public static Alphabet fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown alphabet: " + name);
+        }
+    }
+}
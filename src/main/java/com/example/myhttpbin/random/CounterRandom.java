@@ -0,0 +1,35 @@
+package com.example.myhttpbin.random;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Counter-based generator: the n-th value of a stream is a pure function of its key and n,
+ * computed with the SplitMix64 finalizer. There is no state beyond the counter, so any position of
+ * the stream can be produced directly with {@link #valueAt(long, long)}.
+ *
+ * <p>Not thread-safe, use one instance per thread.
+ */
+public final class CounterRandom implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long key;
+    private long counter;
+
+    public CounterRandom(long key) {
+        this.key = key;
+    }
+
+    @Override
+    public long nextLong() {
+        return valueAt(key, counter++);
+    }
+
+    /** The value at {@code index} of the stream identified by {@code key}. */
+    public static long valueAt(long key, long index) {
+        long z = key + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.myhttpbin.random;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Generators available for payload data. Apart from {@link #SECURE}, which keeps the single
+ * shared {@link SecureRandom} the endpoints always used, every algorithm hands out one instance per
+ * thread so concurrent requests never contend on generator state.
+ */
+public enum RandomAlgorithm {
+    /** Cryptographically strong, shared and internally synchronized. */
+    SECURE {
+        private final SecureRandom random = new SecureRandom();
+
+        @Override
+        public RandomGenerator current() {
+            return random;
+        }
+    },
+    /** {@link SplittableRandom}, per thread. */
+    SPLITTABLE {
+        private final ThreadLocal<SplittableRandom> randoms =
+                ThreadLocal.withInitial(SplittableRandom::new);
+
+        @Override
+        public RandomGenerator current() {
+            return randoms.get();
+        }
+    },
+    /** LXM family {@code L64X128MixRandom}, per thread. */
+    L64X128 {
+        // Looked up once: of() resolves the constructor reflectively on every call, and with
+        // virtual threads every request is a new thread
+        private final RandomGeneratorFactory<RandomGenerator> factory =
+                RandomGeneratorFactory.of("L64X128MixRandom");
+        private final ThreadLocal<RandomGenerator> randoms =
+                ThreadLocal.withInitial(factory::create);
+
+        @Override
+        public RandomGenerator current() {
+            return randoms.get();
+        }
+    },
+    /** {@link CounterRandom} with a random key, per thread. */
+    COUNTER {
+        private final ThreadLocal<CounterRandom> randoms =
+                ThreadLocal.withInitial(
+                        () -> new CounterRandom(ThreadLocalRandom.current().nextLong()));
+
+        @Override
+        public RandomGenerator current() {
+            return randoms.get();
+        }
+    };
+
+    /** Generator to use on the calling thread. */
+    public abstract RandomGenerator current();
+
+    public static RandomAlgorithm fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown generator: " + name);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.myhttpbin.random;
+
+import java.util.random.RandomGenerator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves the generator of a request: the {@code generator} request parameter when present,
+ * otherwise the server default set with {@code myhttpbin.random.generator}.
+ */
+@Component
+public class RandomGenerators {
+
+    private final RandomAlgorithm defaultAlgorithm;
+
+    public RandomGenerators(
+            @Value("${myhttpbin.random.generator:splittable}") String defaultAlgorithm) {
+        this.defaultAlgorithm = RandomAlgorithm.fromName(defaultAlgorithm);
+    }
+
+    /**
+     * Generator for the calling thread.
+     *
+     * @param name algorithm name, or {@code null} for the server default
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public RandomGenerator select(String name) {
+        RandomAlgorithm algorithm =
+                name == null ? defaultAlgorithm : RandomAlgorithm.fromName(name);
+        return algorithm.current();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.myhttpbin.reactive;
+
+import com.example.myhttpbin.controller.PreEncodedResponses;
+import com.example.myhttpbin.delay.DelayScheduler;
+import com.example.myhttpbin.echo.BodyCapture;
+import com.example.myhttpbin.echo.JsonBodyParser;
+import com.example.myhttpbin.metrics.EndpointMetrics;
+import com.example.myhttpbin.payload.FilePayloadStore;
+import com.example.myhttpbin.payload.PayloadMetrics;
+import com.example.myhttpbin.payload.PayloadSource;
+import com.example.myhttpbin.payload.RandomContentPool;
+import com.example.myhttpbin.random.RandomGenerators;
+import com.example.myhttpbin.uuid.UuidV7Generator;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+/**
+ * The reactive deployment mode, started with {@code spring.main.web-application-type=reactive}:
+ * the {@link ReactiveEndpoints} routes on Reactor Netty instead of the servlet controller on
+ * Tomcat.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfiguration {
+
+    /** Tomcat is on the classpath for the servlet mode and would be picked first otherwise. */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return factory;
+    }
+
+    /**
+     * Reactor Netty's connection, data and event loop meters. URIs are tagged by their first path
+     * segment only, the raw paths would create a meter per {@code /bytes/{n}}.
+     */
+    @Bean
+    public NettyServerCustomizer nettyMetricsCustomizer() {
+        return httpServer -> httpServer.metrics(true, ReactiveConfiguration::uriTag);
+    }
+
+    static String uriTag(String uri) {
+        int end = uri.length();
+        for (int i = 1; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '/' || c == '?') {
+                end = i;
+                break;
+            }
+        }
+        return uri.substring(0, end);
+    }
+
+    @Bean
+    public ReactiveEndpoints reactiveEndpoints(
+            DelayScheduler delayScheduler,
+            RandomGenerators randomGenerators,
+            RandomContentPool contentPool,
+            FilePayloadStore filePayloads,
+            PayloadMetrics payloadMetrics,
+            UuidV7Generator uuidV7Generator,
+            JsonBodyParser jsonBodyParser,
+            BodyCapture bodyCapture,
+            PreEncodedResponses preEncoded,
+            EndpointMetrics endpointMetrics,
+            @Value("${myhttpbin.payload.source:generate}") String defaultSource) {
+        return new ReactiveEndpoints(
+                delayScheduler,
+                randomGenerators,
+                contentPool,
+                filePayloads,
+                payloadMetrics,
+                uuidV7Generator,
+                jsonBodyParser,
+                bodyCapture,
+                preEncoded,
+                endpointMetrics,
+                PayloadSource.fromName(defaultSource));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveRoutes(ReactiveEndpoints endpoints) {
+        return endpoints.routes();
+    }
+}
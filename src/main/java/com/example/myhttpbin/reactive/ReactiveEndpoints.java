@@ -0,0 +1,523 @@
+package com.example.myhttpbin.reactive;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+import com.example.myhttpbin.controller.ConstantError;
+import com.example.myhttpbin.controller.PreEncodedResponses;
+import com.example.myhttpbin.delay.DelayScheduler;
+import com.example.myhttpbin.delay.DelaySpec;
+import com.example.myhttpbin.delay.HashedWheelTimer;
+import com.example.myhttpbin.dto.Base64Response;
+import com.example.myhttpbin.dto.ErrorResponse;
+import com.example.myhttpbin.dto.UuidResponse;
+import com.example.myhttpbin.echo.BodyCapture;
+import com.example.myhttpbin.echo.CapturedBody;
+import com.example.myhttpbin.echo.EchoResponse;
+import com.example.myhttpbin.echo.JsonBodyParser;
+import com.example.myhttpbin.metrics.EndpointMetrics;
+import com.example.myhttpbin.metrics.EndpointMetrics.PayloadEndpoint;
+import com.example.myhttpbin.payload.DeterministicPayload;
+import com.example.myhttpbin.payload.FilePayloadStore;
+import com.example.myhttpbin.payload.PayloadMetrics;
+import com.example.myhttpbin.payload.PayloadSource;
+import com.example.myhttpbin.payload.RandomContentPool;
+import com.example.myhttpbin.random.Alphabet;
+import com.example.myhttpbin.random.RandomGenerators;
+import com.example.myhttpbin.uuid.UuidV7Generator;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ZeroCopyHttpOutputMessage;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The {@code /uuid}, {@code /base64}, {@code /delay}, {@code /bytes}, {@code /stream-bytes} and
+ * {@code /chars} endpoints as functional routes on Reactor Netty, with the same parameters,
+ * limits and responses as the servlet controller. Nothing blocks an event loop: delays complete
+ * from the shared timer wheel, payloads are streamed as {@link DataBuffer}s on demand, pool
+ * slices are wrapped without copying and payload files are sent with zero-copy transfers.
+ *
+ * <p>Echoed bodies are held in memory up to {@code myhttpbin.echo.body.memory-threshold}, larger
+ * ones are rejected with 413 instead of being spilled to disk.
+ */
+public class ReactiveEndpoints {
+
+    // Same limits as the servlet controller
+    private static final double MAX_DELAY_SECONDS = 60;
+
+    private static final int MAX_BYTES = 1024 * 1024;
+
+    private static final long MAX_STREAM_BYTES = 64L * 1024 * 1024 * 1024;
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+    private final DelayScheduler delayScheduler;
+
+    private final RandomGenerators randomGenerators;
+
+    private final RandomContentPool contentPool;
+
+    private final FilePayloadStore filePayloads;
+
+    private final PayloadMetrics payloadMetrics;
+
+    private final UuidV7Generator uuidV7Generator;
+
+    private final JsonBodyParser jsonBodyParser;
+
+    private final BodyCapture bodyCapture;
+
+    private final PreEncodedResponses preEncoded;
+
+    private final EndpointMetrics endpointMetrics;
+
+    private final PayloadSource defaultSource;
+
+    public ReactiveEndpoints(
+            DelayScheduler delayScheduler,
+            RandomGenerators randomGenerators,
+            RandomContentPool contentPool,
+            FilePayloadStore filePayloads,
+            PayloadMetrics payloadMetrics,
+            UuidV7Generator uuidV7Generator,
+            JsonBodyParser jsonBodyParser,
+            BodyCapture bodyCapture,
+            PreEncodedResponses preEncoded,
+            EndpointMetrics endpointMetrics,
+            PayloadSource defaultSource) {
+        this.delayScheduler = delayScheduler;
+        this.randomGenerators = randomGenerators;
+        this.contentPool = contentPool;
+        this.filePayloads = filePayloads;
+        this.payloadMetrics = payloadMetrics;
+        this.uuidV7Generator = uuidV7Generator;
+        this.jsonBodyParser = jsonBodyParser;
+        this.bodyCapture = bodyCapture;
+        this.preEncoded = preEncoded;
+        this.endpointMetrics = endpointMetrics;
+        this.defaultSource = defaultSource;
+    }
+
+    public RouterFunction<ServerResponse> routes() {
+        return RouterFunctions.route()
+                .GET("/uuid", this::uuid)
+                .GET("/base64/{value}", this::decodeBase64)
+                .GET("/delay/{seconds}", request -> delay(request, "GET", false))
+                .POST("/delay/{seconds}", request -> delay(request, "POST", true))
+                .PUT("/delay/{seconds}", request -> delay(request, "PUT", true))
+                .DELETE("/delay/{seconds}", request -> delay(request, "DELETE", false))
+                .GET("/bytes/{n}", this::bytes)
+                .GET("/stream-bytes/{n}", this::streamBytes)
+                .GET("/chars/{n}", this::chars)
+                .build();
+    }
+
+    Mono<ServerResponse> uuid(ServerRequest request) {
+        int version;
+        try {
+            version = request.queryParam("version").map(Integer::parseInt).orElse(4);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+        if (version != 4 && version != 7) {
+            return error(ConstantError.INVALID_UUID_VERSION);
+        }
+        UUID uuid =
+                version == 7
+                        ? uuidV7Generator.next(randomGenerators.select(null))
+                        : UUID.randomUUID();
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new UuidResponse(uuid.toString()));
+    }
+
+    Mono<ServerResponse> decodeBase64(ServerRequest request) {
+        try {
+            byte[] decodedBytes = Base64.getDecoder().decode(request.pathVariable("value"));
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new Base64Response(new String(decodedBytes)));
+        } catch (IllegalArgumentException e) {
+            return error(ConstantError.INVALID_BASE64);
+        }
+    }
+
+    Mono<ServerResponse> delay(ServerRequest request, String method, boolean readBody) {
+        double seconds;
+        DelaySpec delaySpec;
+        try {
+            seconds = Double.parseDouble(request.pathVariable("seconds"));
+            if (seconds > MAX_DELAY_SECONDS) {
+                return error(ConstantError.DELAY_TOO_LONG);
+            }
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+        try {
+            delaySpec = DelaySpec.parse(seconds, name -> request.queryParam(name).orElse(null));
+        } catch (IllegalArgumentException e) {
+            return badRequest(endpointMetrics.rejection("Invalid delay", e.getMessage()));
+        }
+        long delayMillis = delaySpec.sampleMillis(MAX_DELAY_SECONDS);
+
+        if (!readBody) {
+            return sleep(delayMillis).then(echo(request, method, null, delayMillis));
+        }
+        // Read only once the delay is known to be valid, while the delay has not started yet
+        return captureBody(request)
+                .flatMap(body -> sleep(delayMillis).then(echo(request, method, body, delayMillis)))
+                .onErrorResume(
+                        DataBufferLimitException.class,
+                        e ->
+                                ServerResponse.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                                        .bodyValue(
+                                                endpointMetrics.rejection(
+                                                        "Body too large", e.getMessage())));
+    }
+
+    private Mono<ServerResponse> echo(
+            ServerRequest request, String method, CapturedBody body, long delayMillis) {
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(
+                        EchoResponse.of(request, method, body, jsonBodyParser)
+                                .withDelay(delayMillis / 1000.0));
+    }
+
+    /** Completes after {@code delayMillis} on the shared timer wheel, like the servlet delays. */
+    private Mono<Void> sleep(long delayMillis) {
+        return Mono.<Void>create(
+                        sink -> {
+                            HashedWheelTimer.Timeout pending =
+                                    delayScheduler.schedule(
+                                            sink::success, delayMillis, TimeUnit.MILLISECONDS);
+                            // Free the timer slot early when the client goes away
+                            sink.onCancel(pending::cancel);
+                        })
+                // Serialize the response off the timer thread, which only fires timeouts
+                .publishOn(Schedulers.parallel());
+    }
+
+    /** The whole body in memory, failing with {@link DataBufferLimitException} beyond that. */
+    private Mono<CapturedBody> captureBody(ServerRequest request) {
+        Charset charset =
+                request.headers()
+                        .contentType()
+                        .map(MediaType::getCharset)
+                        .orElse(StandardCharsets.UTF_8);
+        return DataBufferUtils.join(
+                        request.body(BodyExtractors.toDataBuffers()),
+                        (int) bodyCapture.memoryThreshold())
+                .map(buffer -> buffer.asInputStream(true))
+                .defaultIfEmpty(InputStream.nullInputStream())
+                // Within the threshold the capture stays in memory, no file is touched
+                .flatMap(in -> Mono.fromCallable(() -> bodyCapture.capture(in, charset)));
+    }
+
+    Mono<ServerResponse> bytes(ServerRequest request) {
+        int n;
+        Long seed;
+        PayloadSource source;
+        String generator = request.queryParam("generator").orElse(null);
+        try {
+            n = Integer.parseInt(request.pathVariable("n"));
+            seed = request.queryParam("seed").map(Long::valueOf).orElse(null);
+            source = resolveSource(request);
+            randomGenerators.select(generator);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+        if (n <= 0) {
+            return error(ConstantError.INVALID_BYTE_COUNT);
+        }
+        if (n > MAX_BYTES) {
+            return error(ConstantError.SIZE_ABOVE_1MB);
+        }
+
+        endpointMetrics.recordResponseBytes(PayloadEndpoint.BYTES, n);
+        // Seeded bytes are reproducible, so they can be served in ranges
+        if (seed != null) {
+            return servePayload(
+                    DeterministicPayload.seeded(seed, n),
+                    "\"bytes-" + seed + "-" + n + "\"",
+                    request);
+        }
+        // A single chunk, the whole payload is generated at once
+        return randomPayload(
+                source,
+                MediaType.APPLICATION_OCTET_STREAM,
+                n,
+                n,
+                (chunk, length) -> randomGenerators.select(generator).nextBytes(chunk));
+    }
+
+    Mono<ServerResponse> streamBytes(ServerRequest request) {
+        long n;
+        int chunkSize;
+        PayloadSource source;
+        String generator = request.queryParam("generator").orElse(null);
+        try {
+            n = Long.parseLong(request.pathVariable("n"));
+            chunkSize =
+                    request.queryParam("chunk_size")
+                            .map(Integer::parseInt)
+                            .orElse(DEFAULT_CHUNK_SIZE);
+            source = resolveSource(request);
+            randomGenerators.select(generator);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+        if (n <= 0) {
+            return error(ConstantError.INVALID_BYTE_COUNT);
+        }
+        if (n > MAX_STREAM_BYTES) {
+            return error(ConstantError.SIZE_ABOVE_64GB);
+        }
+        if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE) {
+            return error(ConstantError.INVALID_CHUNK_SIZE);
+        }
+
+        endpointMetrics.recordResponseBytes(PayloadEndpoint.STREAM_BYTES, n);
+        return randomPayload(
+                source,
+                MediaType.APPLICATION_OCTET_STREAM,
+                n,
+                chunkSize,
+                (chunk, length) -> randomGenerators.select(generator).nextBytes(chunk));
+    }
+
+    Mono<ServerResponse> chars(ServerRequest request) {
+        int n;
+        PayloadSource source;
+        Alphabet characters;
+        String generator = request.queryParam("generator").orElse(null);
+        try {
+            n = Integer.parseInt(request.pathVariable("n"));
+            source = resolveSource(request);
+            randomGenerators.select(generator);
+            characters =
+                    request.queryParam("alphabet")
+                            .map(Alphabet::fromName)
+                            .orElse(Alphabet.ALPHANUMERIC);
+        } catch (IllegalArgumentException e) {
+            return invalidParameter(e);
+        }
+        if (n <= 0) {
+            return error(ConstantError.INVALID_CHAR_COUNT);
+        }
+        if (n > MAX_BYTES) {
+            return error(ConstantError.SIZE_ABOVE_1MB);
+        }
+
+        endpointMetrics.recordResponseBytes(PayloadEndpoint.CHARS, n);
+        // The pool only holds alphanumeric text and the payload file only bytes, everything
+        // else is generated
+        if (source == PayloadSource.POOL && characters == Alphabet.ALPHANUMERIC) {
+            return ServerResponse.ok()
+                    .contentType(MediaType.TEXT_PLAIN)
+                    .contentLength(n)
+                    .body(
+                            (message, context) ->
+                                    message.writeWith(
+                                            Flux.fromIterable(contentPool.charSlices(n))
+                                                    .map(message.bufferFactory()::wrap)));
+        }
+        return randomPayload(
+                PayloadSource.GENERATE,
+                MediaType.TEXT_PLAIN,
+                n,
+                DEFAULT_CHUNK_SIZE,
+                (chunk, length) ->
+                        characters.fill(randomGenerators.select(generator), chunk, length));
+    }
+
+    /**
+     * Streams {@code n} random bytes from {@code source}, recording it in the payload metrics.
+     * Generated chunks are filled by {@code filler} on the thread that requests them.
+     */
+    private Mono<ServerResponse> randomPayload(
+            PayloadSource source,
+            MediaType contentType,
+            long n,
+            int chunkSize,
+            ObjIntConsumer<byte[]> filler) {
+        BodyInserter<Void, ReactiveHttpOutputMessage> body =
+                switch (source) {
+                    case POOL ->
+                            recorded(
+                                    source,
+                                    n,
+                                    message ->
+                                            Flux.fromIterable(contentPool.byteSlices(n))
+                                                    .map(message.bufferFactory()::wrap));
+                    case FILE -> (message, context) -> sendFile(message, n, chunkSize);
+                    case GENERATE ->
+                            recorded(
+                                    source,
+                                    n,
+                                    message ->
+                                            generate(
+                                                    message.bufferFactory(),
+                                                    n,
+                                                    chunkSize,
+                                                    filler));
+                };
+        return ServerResponse.ok().contentType(contentType).contentLength(n).body(body);
+    }
+
+    private BodyInserter<Void, ReactiveHttpOutputMessage> recorded(
+            PayloadSource source,
+            long n,
+            Function<ReactiveHttpOutputMessage, Flux<DataBuffer>> buffers) {
+        return (message, context) ->
+                Mono.defer(
+                        () -> {
+                            long start = System.nanoTime();
+                            return message.writeWith(buffers.apply(message))
+                                    .doOnSuccess(
+                                            done -> payloadMetrics.recordWrite(source, n, start));
+                        });
+    }
+
+    /**
+     * {@code n} bytes in chunks of at most {@code chunkSize}, produced on demand. The random
+     * bytes go through one scratch array per response into pooled buffers, as written chunks
+     * are still in flight when the next one is filled.
+     */
+    private static Flux<DataBuffer> generate(
+            DataBufferFactory bufferFactory,
+            long n,
+            int chunkSize,
+            ObjIntConsumer<byte[]> filler) {
+        return Flux.defer(
+                () -> {
+                    byte[] scratch = new byte[(int) Math.min(chunkSize, n)];
+                    return Flux.<DataBuffer, Long>generate(
+                            () -> n,
+                            (remaining, sink) -> {
+                                int length = (int) Math.min(scratch.length, remaining);
+                                filler.accept(scratch, length);
+                                DataBuffer buffer = bufferFactory.allocateBuffer(length);
+                                sink.next(buffer.write(scratch, 0, length));
+                                if (remaining == length) {
+                                    sink.complete();
+                                }
+                                return remaining - length;
+                            });
+                });
+    }
+
+    /**
+     * {@code n} bytes of the payload file, zero-copy where the server supports it and the file is
+     * large enough. Longer payloads repeat the file from its start, read in buffers: a response
+     * only takes one zero-copy file region.
+     */
+    private Mono<Void> sendFile(ReactiveHttpOutputMessage message, long n, int chunkSize) {
+        // Only waits for the file right after startup, while it is provisioned
+        return Mono.fromCallable(filePayloads::file)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(
+                        path -> {
+                            payloadMetrics.recordHandoff(PayloadSource.FILE, n);
+                            if (n <= filePayloads.size()
+                                    && message instanceof ZeroCopyHttpOutputMessage zeroCopy) {
+                                return zeroCopy.writeWith(path, 0, n);
+                            }
+                            return message.writeWith(
+                                    DataBufferUtils.takeUntilByteCount(
+                                            DataBufferUtils.read(
+                                                            path,
+                                                            message.bufferFactory(),
+                                                            chunkSize)
+                                                    .repeat(),
+                                            n));
+                        });
+    }
+
+    /**
+     * Serves a deterministic payload, leaving {@code Range} requests to WebFlux's resource
+     * writer. As in the servlet controller, unsatisfiable ranges and an {@code If-Range} that does
+     * not match the entity tag are answered here.
+     */
+    private Mono<ServerResponse> servePayload(
+            DeterministicPayload payload, String etag, ServerRequest request) {
+        String range = request.headers().firstHeader(HttpHeaders.RANGE);
+        if (range != null) {
+            String ifRange = request.headers().firstHeader(HttpHeaders.IF_RANGE);
+            if (ifRange != null && !ifRange.equals(etag)) {
+                // Streamed as buffers, which the resource writer's range support never sees
+                return ServerResponse.ok()
+                        .eTag(etag)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .contentLength(payload.contentLength())
+                        .body(
+                                (message, context) ->
+                                        message.writeWith(
+                                                DataBufferUtils.readInputStream(
+                                                        payload::getInputStream,
+                                                        message.bufferFactory(),
+                                                        DEFAULT_CHUNK_SIZE)));
+            }
+            try {
+                HttpRange.toResourceRegions(HttpRange.parseRanges(range), payload);
+            } catch (IllegalArgumentException e) {
+                return ServerResponse.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + payload.contentLength())
+                        .bodyValue(
+                                endpointMetrics.rejection(
+                                        "Range not satisfiable", e.getMessage()));
+            }
+        }
+
+        return ServerResponse.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(BodyInserters.fromResource(payload));
+    }
+
+    private PayloadSource resolveSource(ServerRequest request) {
+        return request.queryParam("source").map(PayloadSource::fromName).orElse(defaultSource);
+    }
+
+    private Mono<ServerResponse> error(ConstantError error) {
+        ResponseEntity<byte[]> response = preEncoded.error(error);
+        return ServerResponse.status(response.getStatusCode())
+                .headers(headers -> headers.addAll(response.getHeaders()))
+                .bodyValue(response.getBody());
+    }
+
+    private Mono<ServerResponse> invalidParameter(IllegalArgumentException e) {
+        return badRequest(endpointMetrics.rejection("Invalid parameter", e.getMessage()));
+    }
+
+    private static Mono<ServerResponse> badRequest(ErrorResponse error) {
+        return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(error);
+    }
+}
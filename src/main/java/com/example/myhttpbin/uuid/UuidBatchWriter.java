@@ -0,0 +1,94 @@
+package com.example.myhttpbin.uuid;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams batches of UUIDs. Each UUID is generated as two longs and formatted straight into a
+ * reusable output buffer, without {@link java.util.UUID} objects, Strings or per-entry
+ * allocations, so memory is constant whatever the batch size.
+ */
+public final class UuidBatchWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] HEX_DIGITS = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private UuidBatchWriter() {}
+
+    /** Writes {@code count} UUIDs of {@code sequence} in {@code format}. */
+    public static void write(
+            OutputStream out, UuidFormat format, long count, UuidSequence sequence)
+            throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long[] bits = new long[2];
+        int position = put(format.prefix, buffer, 0);
+        int maxEntryLength = format.separator.length + format.entryLength();
+        for (long i = 0; i < count; i++) {
+            if (position + maxEntryLength > buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            if (i > 0) {
+                position = put(format.separator, buffer, position);
+            }
+            position = put(format.before, buffer, position);
+
+            sequence.next(bits);
+            position =
+                    format == UuidFormat.BINARY
+                            ? putBinary(bits[0], bits[1], buffer, position)
+                            : putCanonical(bits[0], bits[1], buffer, position);
+
+            position = put(format.after, buffer, position);
+        }
+        if (position + format.suffix.length > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+        position = put(format.suffix, buffer, position);
+        out.write(buffer, 0, position);
+        out.flush();
+    }
+
+    /**
+     * Formats a UUID as its 36 character lowercase hex representation, as {@link
+     * java.util.UUID#toString()} would.
+     *
+     * @return the offset after the last character written
+     */
+    public static int putCanonical(long msb, long lsb, byte[] buffer, int offset) {
+        putHex(msb >>> 32, 8, buffer, offset);
+        buffer[offset + 8] = '-';
+        putHex(msb >>> 16, 4, buffer, offset + 9);
+        buffer[offset + 13] = '-';
+        putHex(msb, 4, buffer, offset + 14);
+        buffer[offset + 18] = '-';
+        putHex(lsb >>> 48, 4, buffer, offset + 19);
+        buffer[offset + 23] = '-';
+        putHex(lsb, 12, buffer, offset + 24);
+        return offset + UuidFormat.CANONICAL_LENGTH;
+    }
+
+    private static int putBinary(long msb, long lsb, byte[] buffer, int offset) {
+        for (int i = 0; i < 8; i++) {
+            buffer[offset + i] = (byte) (msb >>> (56 - 8 * i));
+            buffer[offset + 8 + i] = (byte) (lsb >>> (56 - 8 * i));
+        }
+        return offset + UuidFormat.BINARY_LENGTH;
+    }
+
+    private static void putHex(long value, int digits, byte[] buffer, int offset) {
+        for (int i = digits - 1; i >= 0; i--) {
+            buffer[offset + i] = HEX_DIGITS[(int) value & 0xf];
+            value >>>= 4;
+        }
+    }
+
+    private static int put(byte[] bytes, byte[] buffer, int offset) {
+        System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+        return offset + bytes.length;
+    }
+}
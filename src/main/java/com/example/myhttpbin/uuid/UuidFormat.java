@@ -0,0 +1,75 @@
+package com.example.myhttpbin.uuid;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Output formats of the batch UUID endpoint. Every entry has the same size, so the length of a
+ * batch is known before anything is generated.
+ */
+public enum UuidFormat {
+    /** A JSON array of strings. */
+    JSON(MediaType.APPLICATION_JSON, "[", "\"", "\"", ",", "]"),
+    /** One {@code {"uuid":"..."}} object per line. */
+    NDJSON(MediaType.APPLICATION_NDJSON, "", "{\"uuid\":\"", "\"}\n", "", ""),
+    /** One UUID per line. */
+    TEXT(MediaType.TEXT_PLAIN, "", "", "\n", "", ""),
+    /** 16 big-endian bytes per UUID, back to back. */
+    BINARY(MediaType.APPLICATION_OCTET_STREAM, "", "", "", "", "");
+
+    static final int CANONICAL_LENGTH = 36;
+
+    static final int BINARY_LENGTH = 16;
+
+    private final MediaType contentType;
+    final byte[] prefix;
+    final byte[] before;
+    final byte[] after;
+    final byte[] separator;
+    final byte[] suffix;
+
+    UuidFormat(
+            MediaType contentType,
+            String prefix,
+            String before,
+            String after,
+            String separator,
+            String suffix) {
+        this.contentType = contentType;
+        this.prefix = ascii(prefix);
+        this.before = ascii(before);
+        this.after = ascii(after);
+        this.separator = ascii(separator);
+        this.suffix = ascii(suffix);
+    }
+
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    /** Size of a single UUID including its decoration, without the separator. */
+    int entryLength() {
+        int uuidLength = this == BINARY ? BINARY_LENGTH : CANONICAL_LENGTH;
+        return before.length + uuidLength + after.length;
+    }
+
+    /** Exact number of bytes of a batch of {@code count} UUIDs. */
+    public long contentLength(long count) {
+        long separators = count > 0 ? (count - 1) * separator.length : 0;
+        return prefix.length + count * entryLength() + separators + suffix.length;
+    }
+
+    public static UuidFormat fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format: " + name);
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
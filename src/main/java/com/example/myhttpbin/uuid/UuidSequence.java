@@ -0,0 +1,20 @@
+package com.example.myhttpbin.uuid;
+
+import java.util.random.RandomGenerator;
+
+/** Source of the UUIDs of a batch, producing their bits without allocating. */
+@FunctionalInterface
+public interface UuidSequence {
+
+    /** Stores the most significant bits of the next UUID in {@code bits[0]}, the rest in [1]. */
+    void next(long[] bits);
+
+    /** Random, version 4 UUIDs. */
+    static UuidSequence random(RandomGenerator random) {
+        return bits -> {
+            // Version 4 and the IETF variant over 122 random bits
+            bits[0] = (random.nextLong() & ~0xf000L) | 0x4000L;
+            bits[1] = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        };
+    }
+}
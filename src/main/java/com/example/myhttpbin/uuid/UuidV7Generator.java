@@ -0,0 +1,89 @@
+package com.example.myhttpbin.uuid;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Time-ordered, version 7 UUIDs that are strictly increasing across the whole process.
+ *
+ * <p>The 48-bit millisecond timestamp is followed by an 18-bit counter, the 12 bits of {@code
+ * rand_a} and the top 6 bits of {@code rand_b}, and 56 random bits from the caller's generator.
+ * Timestamp and counter are a single long advanced with compare-and-set, so ordering needs no
+ * lock, and a batch reserves its whole range of counter values with one update. The counter
+ * starts at a random value every millisecond and carries into the timestamp when it overflows,
+ * running slightly ahead of the clock rather than repeating or going backwards.
+ */
+@Component
+public class UuidV7Generator {
+
+    private static final int COUNTER_BITS = 18;
+
+    private static final int RAND_A_COUNTER_BITS = 12;
+
+    private static final int RAND_B_COUNTER_BITS = COUNTER_BITS - RAND_A_COUNTER_BITS;
+
+    private final AtomicLong lastValue = new AtomicLong();
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public UuidV7Generator() {
+        this(System::currentTimeMillis);
+    }
+
+    UuidV7Generator(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public UUID next(RandomGenerator random) {
+        long value = reserve(1, random);
+        return new UUID(mostSignificantBits(value), leastSignificantBits(value, random));
+    }
+
+    /** A sequence of {@code count} consecutive UUIDs, reserved up front. */
+    public UuidSequence sequence(long count, RandomGenerator random) {
+        long first = reserve(count, random);
+        return new UuidSequence() {
+            private long value = first;
+
+            @Override
+            public void next(long[] bits) {
+                bits[0] = mostSignificantBits(value);
+                bits[1] = leastSignificantBits(value, random);
+                value++;
+            }
+        };
+    }
+
+    /** Reserves {@code count} timestamp and counter values and returns the first one. */
+    long reserve(long count, RandomGenerator random) {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        // Leftmost counter bit clear so a millisecond has room for at least 2^17 increments
+        long start = now | (random.nextLong() >>> (Long.SIZE - COUNTER_BITS + 1));
+        while (true) {
+            long last = lastValue.get();
+            long first = last >= now ? last + 1 : start;
+            if (lastValue.compareAndSet(last, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    private static long mostSignificantBits(long value) {
+        long timestamp = value >>> COUNTER_BITS;
+        long randA = (value >>> RAND_B_COUNTER_BITS) & ((1L << RAND_A_COUNTER_BITS) - 1);
+        return timestamp << 16 | 0x7000L | randA;
+    }
+
+    private static long leastSignificantBits(long value, RandomGenerator random) {
+        long counter = value & ((1L << RAND_B_COUNTER_BITS) - 1);
+        return 0x8000000000000000L
+                | counter << (62 - RAND_B_COUNTER_BITS)
+                | random.nextLong() >>> (2 + RAND_B_COUNTER_BITS);
+    }
+}
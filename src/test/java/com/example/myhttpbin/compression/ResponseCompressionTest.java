@@ -0,0 +1,131 @@
+package com.example.myhttpbin.compression;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResponseCompressionTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ResponseCompression compression =
+            new ResponseCompression(
+                    1,
+                    9,
+                    DataSize.ofKilobytes(1),
+                    2,
+                    DataSize.ofKilobytes(4),
+                    DataSize.ofKilobytes(64),
+                    meterRegistry);
+
+    @Test
+    void testNegotiation() {
+        assertNull(ContentCoding.negotiate(null));
+        assertNull(ContentCoding.negotiate("identity"));
+        assertNull(ContentCoding.negotiate("br, gzip;q=0, deflate;q=0"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("deflate, gzip"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("X-GZIP"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=0.5, deflate"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip; q=0, *"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("*;q=0.1"));
+        assertEquals(ContentCoding.DEFLATE, ContentCoding.negotiate("gzip;q=oops, deflate"));
+    }
+
+    @Test
+    void testRoundTripsAndReusesDeflaters() throws Exception {
+        byte[] text = "compressible ".repeat(1000).getBytes(UTF_8);
+        long gzipped = 0;
+        for (int level = 0; level <= 9; level += 3) {
+            byte[] compressed = compress(text, ContentCoding.GZIP, level);
+            assertArrayEquals(text, gunzip(compressed));
+            gzipped += compressed.length;
+            assertArrayEquals(text, inflate(compress(text, ContentCoding.DEFLATE, null)));
+        }
+        // One per coding, given back to the pool after each stream
+        assertEquals(2, counter("myhttpbin.compression.deflaters.created"));
+
+        assertEquals(
+                4.0 * text.length,
+                meterRegistry
+                        .get("myhttpbin.compression.input")
+                        .tag("encoding", "gzip")
+                        .functionCounter()
+                        .count());
+        assertEquals(
+                gzipped,
+                meterRegistry
+                        .get("myhttpbin.compression.output")
+                        .tag("encoding", "gzip")
+                        .functionCounter()
+                        .count());
+
+        assertThrows(IllegalArgumentException.class, () -> compression.checkLevel(10));
+        assertThrows(IllegalArgumentException.class, () -> compression.checkLevel(-1));
+    }
+
+    @Test
+    void testPrecompressedCacheEvictsLeastRecentlyUsed() throws Exception {
+        byte[] random = new byte[3 * 1024];
+        new Random(7).nextBytes(random);
+        ByteArrayResource payload = new ByteArrayResource(random);
+        byte[] best = compression.precompressed("a", payload, ContentCoding.GZIP, 9);
+        assertArrayEquals(random, gunzip(best));
+        assertSame(best, compression.precompressed("a", payload, ContentCoding.GZIP, 9));
+
+        // Another level is another body, which pushes the first out of the 4KB cache
+        byte[] stored = compression.precompressed("a", payload, ContentCoding.GZIP, 0);
+        assertArrayEquals(random, gunzip(stored));
+        assertSame(stored, compression.precompressed("a", payload, ContentCoding.GZIP, 0));
+        byte[] again = compression.precompressed("a", payload, ContentCoding.GZIP, 9);
+        assertNotSame(best, again);
+        assertArrayEquals(best, again);
+
+        assertEquals(2, counter("myhttpbin.compression.cache.hits"));
+        assertEquals(3, counter("myhttpbin.compression.cache.misses"));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).functionCounter().count();
+    }
+
+    private byte[] compress(byte[] bytes, ContentCoding coding, Integer level) throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (CompressingOutputStream out = compression.compress(buffer, coding, level)) {
+            out.write(bytes, 0, 100);
+            out.flush();
+            out.write(bytes, 100, bytes.length - 100);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws Exception {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) throws Exception {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -3,27 +3,50 @@ package com.example.myhttpbin.controller;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.http.HttpMethod.GET;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.security.MessageDigest;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import com.example.myhttpbin.MyhttpbinApplication;
+import com.example.myhttpbin.delay.DelayScheduler;
+import com.example.myhttpbin.payload.RandomContentPool;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
@@ -32,25 +55,49 @@ import org.springframework.core.io.buffer.DataBufferLimitException;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.jayway.jsonpath.JsonPath;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
 import io.netty.handler.timeout.ReadTimeoutHandler;
 import io.netty.handler.timeout.WriteTimeoutHandler;
 import reactor.core.publisher.Flux;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @SpringBootTest(
         classes = MyhttpbinApplication.class,
         webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureMockMvc
+// Serves /actuator/prometheus, which tests leave out by default
+@AutoConfigureObservability(tracing = false)
 class DynamicDataControllerTest {
 
     @Autowired private MockMvc mockMvc;
 
     @LocalServerPort private int port;
 
+    @Autowired private DelayScheduler delayScheduler;
+
+    @Autowired private RandomContentPool contentPool;
+
+    @Autowired private MeterRegistry meterRegistry;
+
+    /** Performs a request whose handler completes asynchronously and dispatches its result. */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult mvcResult =
+                mockMvc.perform(requestBuilder).andExpect(request().asyncStarted()).andReturn();
+        mvcResult.getAsyncResult(TimeUnit.SECONDS.toMillis(65));
+        return mockMvc.perform(asyncDispatch(mvcResult));
+    }
+
     private void logTestMetrics(String testName, long startTime, long endTime) {
         long duration = endTime - startTime;
         Runtime runtime = Runtime.getRuntime();
@@ -89,6 +136,83 @@ class DynamicDataControllerTest {
         logTestMetrics("testBase64EndpointValid", startTime, endTime);
     }
 
+    @Test
+    void testBase64EncodeAndDecodeBodies() throws Exception {
+        byte[] data = new byte[3 * 1024 * 1024 + 1];
+        new Random(11).nextBytes(data);
+
+        for (String variant : new String[] {"standard", "url", "mime"}) {
+            String encoded =
+                    mockMvc.perform(
+                                    post("/base64/encode")
+                                            .param("variant", variant)
+                                            .content(data))
+                            .andExpect(status().isOk())
+                            .andExpect(header().string("Content-Type", "text/plain"))
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+            assertEquals(encoder(variant).encodeToString(data), encoded);
+
+            byte[] decoded =
+                    mockMvc.perform(
+                                    post("/base64/decode")
+                                            .param("variant", variant)
+                                            .content(encoded))
+                            .andExpect(status().isOk())
+                            .andExpect(header().string("Content-Type", "application/octet-stream"))
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsByteArray();
+            assertArrayEquals(data, decoded);
+        }
+    }
+
+    private static Base64.Encoder encoder(String variant) {
+        return switch (variant) {
+            case "url" -> Base64.getUrlEncoder();
+            case "mime" -> Base64.getMimeEncoder();
+            default -> Base64.getEncoder();
+        };
+    }
+
+    @Test
+    void testBase64JsonEnvelopes() throws Exception {
+        byte[] data = new byte[1000];
+        new Random(12).nextBytes(data);
+        String mime = Base64.getMimeEncoder().encodeToString(data);
+
+        // The CRLF line breaks of the MIME variant are escaped inside the JSON string
+        mockMvc.perform(
+                        post("/base64/encode")
+                                .param("variant", "mime")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(data))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(jsonPath("$.encoded").value(mime));
+
+        String text = "Grüße \"quoted\"\n\t" + "x".repeat(10_000);
+        mockMvc.perform(
+                        post("/base64/decode")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .content(Base64.getEncoder().encode(text.getBytes(UTF_8))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(jsonPath("$.decoded").value(text));
+    }
+
+    @Test
+    void testBase64DecodeInvalidBody() throws Exception {
+        mockMvc.perform(post("/base64/decode").content("not*base64"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid Base64"));
+
+        mockMvc.perform(post("/base64/encode").param("variant", "base32").content("abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid parameter"));
+    }
+
     @Test
     void testBase64EndpointInvalid() throws Exception {
         long startTime = System.currentTimeMillis();
@@ -105,7 +229,7 @@ class DynamicDataControllerTest {
     void testDelayEndpoint() throws Exception {
         long startTime = System.currentTimeMillis();
 
-        mockMvc.perform(get("/delay/1?test=value"))
+        performAsync(get("/delay/1?test=value"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.args.test").value("value"))
                 .andExpect(jsonPath("$.url").exists())
@@ -120,7 +244,7 @@ class DynamicDataControllerTest {
     void testDelayEndpointTooLong() throws Exception {
         long startTime = System.currentTimeMillis();
 
-        mockMvc.perform(get("/delay/65"))
+        performAsync(get("/delay/65"))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Delay too long"));
 
@@ -170,9 +294,778 @@ class DynamicDataControllerTest {
                 .andExpect(jsonPath("$.error").value("Size too large"));
     }
 
+    @Test
+    void testPreEncodedErrorResponses() throws Exception {
+        String body =
+                "{\"error\":\"Invalid size\",\"message\":\"Number of bytes must be positive\"}";
+        // Identical, byte for byte, however often they are served
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/stream-bytes/0"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().longValue("Content-Length", body.length()))
+                    .andExpect(content().string(body));
+        }
+
+        performAsync(get("/delay/61"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.error").value("Delay too long"))
+                .andExpect(jsonPath("$.message").value("Maximum delay is 60 seconds"));
+    }
+
+    @Test
+    void testEndpointMetrics() throws Exception {
+        double bytes = responseBytes("/bytes/{n}");
+        double chars = responseBytes("/chars/{n}");
+        double invalidSize = rejections("Invalid size");
+        double invalidParameter = rejections("Invalid parameter");
+
+        mockMvc.perform(get("/bytes/100")).andExpect(status().isOk());
+        mockMvc.perform(get("/chars/50")).andExpect(status().isOk());
+        mockMvc.perform(get("/bytes/0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/chars/10").param("alphabet", "runes"))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(bytes + 100, responseBytes("/bytes/{n}"));
+        assertEquals(chars + 50, responseBytes("/chars/{n}"));
+        assertEquals(invalidSize + 1, rejections("Invalid size"));
+        assertEquals(invalidParameter + 1, rejections("Invalid parameter"));
+
+        String scrape =
+                mockMvc.perform(get("/actuator/prometheus"))
+                        .andExpect(status().isOk())
+                        .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        assertTrue(scrape.contains("# TYPE myhttpbin_response_bytes_total counter\n"));
+        assertTrue(scrape.contains("myhttpbin_response_bytes_total{uri=\"/chars/{n}\",} "));
+        assertTrue(scrape.contains("myhttpbin_rejections_total{error=\"Invalid size\",} "));
+        assertTrue(scrape.contains("# TYPE http_server_requests_seconds histogram\n"));
+        assertTrue(scrape.contains("uri=\"/bytes/{n}\",le=\"+Inf\",} "));
+        assertTrue(scrape.contains("uri=\"/bytes/{n}\",quantile=\"0.99\",} "));
+        assertTrue(scrape.contains("myhttpbin_delay_timer_pending "));
+        assertTrue(scrape.contains("tomcat_threads_busy_threads{"));
+    }
+
+    private double responseBytes(String uri) {
+        return meterRegistry
+                .get("myhttpbin.response.bytes")
+                .tag("uri", uri)
+                .functionCounter()
+                .count();
+    }
+
+    private double rejections(String error) {
+        // Registered with the first rejection unless it is a constant error
+        FunctionCounter counter =
+                meterRegistry.find("myhttpbin.rejections").tag("error", error).functionCounter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void testRequestHistory() throws Exception {
+        String since = Instant.now().minusMillis(1).toString();
+        byte[] body = "history body".getBytes(UTF_8);
+
+        mockMvc.perform(
+                        post("/base64/encode")
+                                .content(body)
+                                .header("X-History", "encode")
+                                .header("Authorization", "Bearer secret")
+                                .header("cookie", "session=secret"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/bytes/0?seed=1")).andExpect(status().isBadRequest());
+        performAsync(
+                        post("/delay/0.1")
+                                .contentType(MediaType.APPLICATION_FORM_URLENCODED)
+                                .content("name=history&tag=a&tag=b"))
+                .andExpect(status().isOk());
+        // Not a dynamic data endpoint
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/history").param("since", since))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacity").value(1024))
+                .andExpect(jsonPath("$.entries.length()").value(3))
+                .andExpect(jsonPath("$.entries[0].path").value("/delay/0.1"))
+                .andExpect(jsonPath("$.entries[0].status").value(200))
+                .andExpect(jsonPath("$.entries[0].bodySize").value(24))
+                .andExpect(
+                        jsonPath("$.entries[0].bodyCrc32c")
+                                .value(crc32c("name=history&tag=a&tag=b".getBytes(UTF_8))))
+                .andExpect(jsonPath("$.entries[1].path").value("/bytes/0"))
+                .andExpect(jsonPath("$.entries[1].query").value("seed=1"))
+                .andExpect(jsonPath("$.entries[2].method").value("POST"))
+                .andExpect(jsonPath("$.entries[2].headers.X-History[0]").value("encode"))
+                .andExpect(
+                        jsonPath("$.entries[2].headers.Authorization[0]").value("[redacted]"))
+                .andExpect(jsonPath("$.entries[2].headers.cookie[0]").value("[redacted]"))
+                .andExpect(jsonPath("$.entries[2].bodySize").value(body.length))
+                .andExpect(jsonPath("$.entries[2].bodyCrc32c").value(crc32c(body)));
+
+        // The delay is recorded when its response completes, after the timer has fired
+        MvcResult delay =
+                mockMvc.perform(get("/history").param("since", since).param("path", "/delay"))
+                        .andReturn();
+        assertTrue(
+                jsonPathDouble(delay, "$.entries[0].latencyMillis") >= 100,
+                delay.getResponse().getContentAsString());
+        mockMvc.perform(get("/history").param("since", since).param("status", "4xx"))
+                .andExpect(jsonPath("$.entries.length()").value(1))
+                .andExpect(jsonPath("$.entries[0].path").value("/bytes/0"));
+        mockMvc.perform(get("/history").param("since", since).param("path", "/bytes/1"))
+                .andExpect(jsonPath("$.entries.length()").value(0));
+        mockMvc.perform(get("/history").param("until", since).param("path", "/delay/0.1"))
+                .andExpect(jsonPath("$.entries.length()").value(0));
+        mockMvc.perform(get("/history").param("status", "teapot"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid parameter"));
+        mockMvc.perform(get("/history").param("since", "yesterday"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String crc32c(byte[] bytes) {
+        CRC32C checksum = new CRC32C();
+        checksum.update(bytes);
+        return HexFormat.of().toHexDigits((int) checksum.getValue());
+    }
+
+    private static double jsonPathDouble(MvcResult result, String path) throws Exception {
+        Number value = JsonPath.read(result.getResponse().getContentAsString(), path);
+        return value.doubleValue();
+    }
+
+    @Test
+    void testBytesEndpointGenerators() throws Exception {
+        for (String generator : new String[] {"secure", "splittable", "l64x128", "counter"}) {
+            byte[] result =
+                    mockMvc.perform(get("/bytes/4096").param("generator", generator))
+                            .andExpect(status().isOk())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsByteArray();
+            assertEquals(4096, result.length);
+        }
+
+        mockMvc.perform(get("/bytes/16").param("generator", "dice"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid parameter"));
+    }
+
+    @Test
+    void testPooledPayloads() throws Exception {
+        byte[] bytes =
+                mockMvc.perform(get("/bytes/100000").param("source", "pool"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", "application/octet-stream"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(100_000, bytes.length);
+
+        String chars =
+                mockMvc.perform(get("/chars/100000").param("source", "pool"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", "text/plain"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        assertTrue(chars.matches("[a-zA-Z0-9]{100000}"));
+
+        // Larger than the pool, served by wrapping around it
+        long streamed = contentPool.size() + 12_345L;
+        byte[] stream =
+                mockMvc.perform(get("/stream-bytes/" + streamed).param("source", "pool"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(streamed, stream.length);
+
+        mockMvc.perform(get("/bytes/16").param("source", "tap"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid parameter"));
+    }
+
+    @Test
+    void testCompressionEndpoints() throws Exception {
+        byte[] gzipped =
+                mockMvc.perform(get("/gzip?level=9").header("X-Trace", "zip"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Encoding", "gzip"))
+                        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        String echo = new String(gunzip(gzipped), UTF_8);
+        assertEquals(true, JsonPath.read(echo, "$.gzipped"));
+        assertEquals("zip", JsonPath.read(echo, "$.headers.X-Trace"));
+        assertEquals("9", JsonPath.read(echo, "$.args.level"));
+
+        byte[] deflated =
+                mockMvc.perform(get("/deflate"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Encoding", "deflate"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(true, JsonPath.read(new String(inflate(deflated), UTF_8), "$.deflated"));
+
+        mockMvc.perform(get("/gzip").param("level", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid parameter"));
+    }
+
+    @Test
+    void testNegotiatedCompression() throws Exception {
+        MvcResult chars =
+                mockMvc.perform(get("/chars/100000").header("Accept-Encoding", "deflate, gzip"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Encoding", "gzip"))
+                        .andExpect(header().string("Vary", "Accept-Encoding"))
+                        .andExpect(header().doesNotExist("Content-Length"))
+                        .andReturn();
+        byte[] compressed = chars.getResponse().getContentAsByteArray();
+        byte[] text = gunzip(compressed);
+        assertEquals(100000, text.length);
+        assertTrue(new String(text, UTF_8).matches("[a-zA-Z0-9]+"));
+        // 62 symbols are about 6 bits of the 8 of each character
+        assertTrue(compressed.length < text.length * 0.8, "compressed " + compressed.length);
+
+        byte[] pooled =
+                mockMvc.perform(
+                                get("/chars/100000?source=pool&level=0")
+                                        .header("Accept-Encoding", "gzip;q=0.5, deflate"))
+                        .andExpect(header().string("Content-Encoding", "deflate"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(100000, inflate(pooled).length);
+
+        byte[] bytes =
+                mockMvc.perform(get("/bytes/4096").header("Accept-Encoding", "gzip"))
+                        .andExpect(header().string("Content-Encoding", "gzip"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(4096, gunzip(bytes).length);
+
+        // Neither accepted, too small to be worth it, or handed to the connector as it is
+        mockMvc.perform(get("/chars/100000").header("Accept-Encoding", "br, gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().longValue("Content-Length", 100000));
+        mockMvc.perform(get("/chars/100").header("Accept-Encoding", "gzip"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(header().doesNotExist("Vary"));
+        mockMvc.perform(get("/bytes/4096?source=file").header("Accept-Encoding", "gzip"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+
+        mockMvc.perform(get("/chars/100000?level=-1").header("Accept-Encoding", "gzip"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testPrecompressedPayloads() throws Exception {
+        double misses = counter("myhttpbin.compression.cache.misses");
+        double hits = counter("myhttpbin.compression.cache.hits");
+        for (int i = 0; i < 2; i++) {
+            byte[] compressed =
+                    mockMvc.perform(get("/range/65536").header("Accept-Encoding", "gzip"))
+                            .andExpect(status().isOk())
+                            .andExpect(header().string("Content-Encoding", "gzip"))
+                            .andExpect(header().string("ETag", "\"range-65536-gzip-9\""))
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsByteArray();
+            assertEquals(letters(0, 65536), new String(gunzip(compressed), UTF_8));
+        }
+        assertEquals(misses + 1, counter("myhttpbin.compression.cache.misses"));
+        assertEquals(hits + 1, counter("myhttpbin.compression.cache.hits"));
+
+        mockMvc.perform(
+                        get("/range/65536")
+                                .header("Accept-Encoding", "gzip")
+                                .header("If-None-Match", "\"range-65536-gzip-9\""))
+                .andExpect(status().isNotModified());
+
+        // Seeded bytes are random, compressed as they are sent and never cached
+        misses = counter("myhttpbin.compression.cache.misses");
+        hits = counter("myhttpbin.compression.cache.hits");
+        byte[] identity =
+                mockMvc.perform(get("/bytes/65536?seed=3"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        byte[] seeded =
+                mockMvc.perform(get("/bytes/65536?seed=3").header("Accept-Encoding", "gzip"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Encoding", "gzip"))
+                        .andExpect(header().doesNotExist("ETag"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertArrayEquals(identity, gunzip(seeded));
+        assertEquals(misses, counter("myhttpbin.compression.cache.misses"));
+        assertEquals(hits, counter("myhttpbin.compression.cache.hits"));
+
+        byte[] letters =
+                mockMvc.perform(get("/range/100000?level=1").header("Accept-Encoding", "deflate"))
+                        .andExpect(header().string("ETag", "\"range-100000-deflate-1\""))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(letters(0, 100000), new String(inflate(letters), UTF_8));
+        assertTrue(letters.length < 1000, "compressed " + letters.length);
+
+        // Beyond the cache, compressed as it is sent
+        long large = 2L * 1024 * 1024;
+        byte[] streamed =
+                mockMvc.perform(get("/range/" + large).header("Accept-Encoding", "gzip"))
+                        .andExpect(header().string("Content-Encoding", "gzip"))
+                        .andExpect(header().doesNotExist("ETag"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(large, gunzip(streamed).length);
+
+        // Ranges are of the document as it is
+        mockMvc.perform(
+                        get("/range/100000")
+                                .header("Accept-Encoding", "gzip")
+                                .header("Range", "bytes=26-28"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string("abc"));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).functionCounter().count();
+    }
+
+    private static byte[] gunzip(byte[] compressed) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void testRangeEndpoint() throws Exception {
+        mockMvc.perform(get("/range/30"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", "\"range-30\""))
+                .andExpect(content().string("abcdefghijklmnopqrstuvwxyzabcd"));
+
+        // Far into a 32GB document, only the requested slice is computed
+        long size = 32L * 1024 * 1024 * 1024;
+        long start = size - 10;
+        mockMvc.perform(get("/range/" + size).header("Range", "bytes=" + start + "-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(
+                        header().string(
+                                        "Content-Range",
+                                        "bytes " + start + "-" + (size - 1) + "/" + size))
+                .andExpect(content().string(letters(start, 10)));
+
+        MvcResult multipart =
+                mockMvc.perform(get("/range/100").header("Range", "bytes=0-2,50-52"))
+                        .andExpect(status().isPartialContent())
+                        .andReturn();
+        String contentType = multipart.getResponse().getContentType();
+        assertTrue(contentType.startsWith("multipart/byteranges"));
+        String body = multipart.getResponse().getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-2/100\r\n\r\nabc"));
+        assertTrue(body.contains("Content-Range: bytes 50-52/100\r\n\r\nyza"));
+
+        mockMvc.perform(get("/range/100").header("Range", "bytes=200-300"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string("Content-Range", "bytes */100"))
+                .andExpect(jsonPath("$.error").value("Range not satisfiable"));
+
+        mockMvc.perform(get("/range/0")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRangeEndpointIfRange() throws Exception {
+        mockMvc.perform(
+                        get("/range/50")
+                                .header("Range", "bytes=10-19")
+                                .header("If-Range", "\"range-50\""))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("klmnopqrst"));
+
+        // A stale validator gets the whole document
+        mockMvc.perform(
+                        get("/range/50")
+                                .header("Range", "bytes=10-19")
+                                .header("If-Range", "\"range-49\""))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", 50))
+                .andExpect(content().string(letters(0, 50)));
+    }
+
+    @Test
+    void testSeededBytesRanges() throws Exception {
+        byte[] full =
+                mockMvc.perform(get("/bytes/1000").param("seed", "42"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Accept-Ranges", "bytes"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(1000, full.length);
+
+        byte[] again =
+                mockMvc.perform(get("/bytes/1000").param("seed", "42"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertArrayEquals(full, again);
+
+        byte[] slice =
+                mockMvc.perform(
+                                get("/bytes/1000")
+                                        .param("seed", "42")
+                                        .header("Range", "bytes=333-666"))
+                        .andExpect(status().isPartialContent())
+                        .andExpect(header().string("Content-Range", "bytes 333-666/1000"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertArrayEquals(Arrays.copyOfRange(full, 333, 667), slice);
+
+        byte[] other =
+                mockMvc.perform(get("/bytes/1000").param("seed", "43"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertFalse(Arrays.equals(full, other));
+    }
+
+    private static String letters(long start, int length) {
+        StringBuilder letters = new StringBuilder(length);
+        for (long i = start; i < start + length; i++) {
+            letters.append((char) ('a' + i % 26));
+        }
+        return letters.toString();
+    }
+
+    @Test
+    void testStreamBytesEndpoint() throws Exception {
+        int numBytes = 200_000;
+        byte[] result =
+                mockMvc.perform(get("/stream-bytes/" + numBytes).param("chunk_size", "4096"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", "application/octet-stream"))
+                        .andExpect(header().longValue("Content-Length", numBytes))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+
+        assertEquals(numBytes, result.length);
+    }
+
+    @Test
+    void testStreamBytesEndpointInvalidParameters() throws Exception {
+        mockMvc.perform(get("/stream-bytes/0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid size"));
+
+        mockMvc.perform(get("/stream-bytes/1024").param("chunk_size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid chunk size"));
+    }
+
+    @Test
+    void testStreamBytesEndpointBeyondBytesLimit() {
+        // Larger than the 1MB cap of /bytes, consumed chunk by chunk on the client side too
+        long numBytes = 64L * 1024 * 1024;
+        WebClient webClient = WebClient.builder().baseUrl("http://localhost:" + port).build();
+
+        Long received =
+                webClient
+                        .get()
+                        .uri("/stream-bytes/" + numBytes)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class)
+                        .map(
+                                dataBuffer -> {
+                                    long size = dataBuffer.readableByteCount();
+                                    DataBufferUtils.release(dataBuffer);
+                                    return size;
+                                })
+                        .reduce(0L, Long::sum)
+                        .block(Duration.ofSeconds(60));
+
+        assertEquals(numBytes, received);
+    }
+
+    @Test
+    void testFilePayloads() throws Exception {
+        double servedBefore = payloadBytes("file");
+        long writesBefore = fileWrites();
+
+        // MockMvc has no sendfile support, the file is copied through the response stream
+        byte[] copied =
+                mockMvc.perform(get("/bytes/100000").param("source", "file"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", "application/octet-stream"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(100_000, copied.length);
+
+        // Tomcat sends the same file with sendfile
+        long numBytes = 8L * 1024 * 1024;
+        byte[] sent =
+                WebClient.builder()
+                        .baseUrl("http://localhost:" + port)
+                        .exchangeStrategies(
+                                ExchangeStrategies.builder()
+                                        .codecs(
+                                                codecs ->
+                                                        codecs.defaultCodecs()
+                                                                .maxInMemorySize(
+                                                                        (int) numBytes))
+                                        .build())
+                        .build()
+                        .get()
+                        .uri("/stream-bytes/" + numBytes + "?source=file")
+                        .retrieve()
+                        .bodyToMono(byte[].class)
+                        .block(Duration.ofSeconds(60));
+        assertEquals(numBytes, sent.length);
+        assertArrayEquals(copied, Arrays.copyOf(sent, copied.length));
+
+        assertEquals(servedBefore + 100_000 + numBytes, payloadBytes("file"));
+        // Only the copy was timed, the sendfile transfer ran after the handler returned
+        assertEquals(writesBefore + 1, fileWrites());
+    }
+
+    private long fileWrites() {
+        return meterRegistry.timer("myhttpbin.payload.write", "source", "file").count();
+    }
+
+    private double payloadBytes(String source) {
+        return meterRegistry.counter("myhttpbin.payload.bytes", "source", source).count();
+    }
+
+    @Test
+    void testUuidsEndpointFormats() throws Exception {
+        String uuidRegex = "[0-9a-f]{8}-[0-9a-f]{4}-4[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}";
+
+        mockMvc.perform(get("/uuids").param("count", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/json"))
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(
+                        jsonPath("$[4]").value(org.hamcrest.Matchers.matchesPattern(uuidRegex)));
+
+        String ndjson =
+                mockMvc.perform(get("/uuids").param("count", "3").param("format", "ndjson"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        assertTrue(ndjson.matches("(\\{\"uuid\":\"" + uuidRegex + "\"}\n){3}"));
+
+        MvcResult text =
+                mockMvc.perform(get("/uuids").param("count", "1000").param("format", "text"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().longValue("Content-Length", 37_000))
+                        .andReturn();
+        String[] lines = text.getResponse().getContentAsString().split("\n");
+        assertEquals(1000, lines.length);
+        assertEquals(1000, Arrays.stream(lines).distinct().count());
+        assertTrue(Arrays.stream(lines).allMatch(line -> line.matches(uuidRegex)));
+
+        byte[] binary =
+                mockMvc.perform(get("/uuids").param("count", "10").param("format", "binary"))
+                        .andExpect(status().isOk())
+                        .andExpect(header().string("Content-Type", "application/octet-stream"))
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsByteArray();
+        assertEquals(160, binary.length);
+        assertEquals(0x40, binary[6] & 0xf0);
+    }
+
+    @Test
+    void testUuidVersion7() throws Exception {
+        String v7Regex = "[0-9a-f]{8}-[0-9a-f]{4}-7[0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}";
+        mockMvc.perform(get("/uuid").param("version", "7"))
+                .andExpect(status().isOk())
+                .andExpect(
+                        jsonPath("$.uuid").value(org.hamcrest.Matchers.matchesPattern(v7Regex)));
+
+        String text =
+                mockMvc.perform(
+                                get("/uuids")
+                                        .param("count", "10000")
+                                        .param("format", "text")
+                                        .param("version", "7"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String[] lines = text.split("\n");
+        assertEquals(10_000, lines.length);
+        assertTrue(Arrays.stream(lines).allMatch(line -> line.matches(v7Regex)));
+        // Lowercase hex of fixed width sorts like the UUIDs themselves
+        String[] sorted = lines.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(lines, sorted);
+
+        mockMvc.perform(get("/uuid").param("version", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid version"));
+    }
+
+    @Test
+    void testUuidsEndpointInvalidParameters() throws Exception {
+        mockMvc.perform(get("/uuids").param("count", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid count"));
+
+        mockMvc.perform(get("/uuids").param("count", "100000001"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid count"));
+
+        mockMvc.perform(get("/uuids").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid parameter"));
+    }
+
+    @Test
+    void testDelayEchoFields() throws Exception {
+        performAsync(
+                        post("/delay/0")
+                                .param("tag", "a", "b")
+                                .param("q", "\"x\"")
+                                .header("X-Echo", "yes")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("  [1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.args.tag[0]").value("a"))
+                .andExpect(jsonPath("$.args.tag[1]").value("b"))
+                .andExpect(jsonPath("$.args.q").value("\"x\""))
+                .andExpect(jsonPath("$.headers.X-Echo").value("yes"))
+                .andExpect(jsonPath("$.url").value("http://localhost/delay/0"))
+                .andExpect(jsonPath("$.method").value("POST"))
+                .andExpect(jsonPath("$.data").value("  [1, 2]"))
+                .andExpect(jsonPath("$.json[0]").value(1))
+                .andExpect(jsonPath("$.json[1]").value(2))
+                .andExpect(jsonPath("$.delay").value(0.0));
+
+        performAsync(post("/delay/0").contentType(MediaType.TEXT_PLAIN).content("plain"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value("plain"))
+                .andExpect(jsonPath("$.json").isEmpty());
+    }
+
+    @Test
+    void testDelayEchoParsesJsonBodies() throws Exception {
+        String body = "{\"name\":\"x\",\"nested\":{\"list\":[1,2.5,true,null]}}";
+        performAsync(post("/delay/0").contentType("application/vnd.api+json").content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(body))
+                .andExpect(jsonPath("$.json.name").value("x"))
+                .andExpect(jsonPath("$.json.nested.list[1]").value(2.5))
+                .andExpect(jsonPath("$.json_error").doesNotExist());
+
+        // Not sent as JSON, or opted out: never parsed
+        performAsync(post("/delay/0").contentType(MediaType.TEXT_PLAIN).content(body))
+                .andExpect(jsonPath("$.json").isEmpty())
+                .andExpect(jsonPath("$.json_error").doesNotExist());
+        performAsync(
+                        post("/delay/0")
+                                .param("parse_json", "false")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                .andExpect(jsonPath("$.json").isEmpty())
+                .andExpect(jsonPath("$.json_error").doesNotExist());
+    }
+
+    @Test
+    void testDelayEchoJsonLimits() throws Exception {
+        performAsync(post("/delay/0").contentType(MediaType.APPLICATION_JSON).content("{\"a\":"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.json").isEmpty())
+                .andExpect(
+                        jsonPath("$.json_error")
+                                .value(org.hamcrest.Matchers.startsWith("Invalid JSON")));
+
+        performAsync(post("/delay/0").contentType(MediaType.APPLICATION_JSON).content("1 2"))
+                .andExpect(
+                        jsonPath("$.json_error").value("Body contains more than one JSON value"));
+
+        String deep = "[".repeat(65) + "]".repeat(65);
+        performAsync(put("/delay/0").contentType(MediaType.APPLICATION_JSON).content(deep))
+                .andExpect(jsonPath("$.json").isEmpty())
+                .andExpect(jsonPath("$.json_error").value("Body exceeds the maximum depth of 64"));
+
+        String many = "[" + "0,".repeat(100_000) + "0]";
+        performAsync(put("/delay/0").contentType(MediaType.APPLICATION_JSON).content(many))
+                .andExpect(
+                        jsonPath("$.json_error")
+                                .value("Body exceeds the maximum of 100000 tokens"));
+
+        // Rejected on its length, before any parsing
+        String large = "[\"" + "x".repeat(2 * 1024 * 1024) + "\"]";
+        performAsync(put("/delay/0").contentType(MediaType.APPLICATION_JSON).content(large))
+                .andExpect(jsonPath("$.json").isEmpty())
+                .andExpect(
+                        jsonPath("$.json_error")
+                                .value("Body exceeds the maximum size of 1048576 bytes"));
+    }
+
+    @Test
+    void testDelayEchoLargeBodies() throws Exception {
+        // Above the 1MB memory threshold: described, but only echoed on request
+        String large = "y".repeat(2 * 1024 * 1024);
+        String sha256 =
+                HexFormat.of()
+                        .formatHex(
+                                MessageDigest.getInstance("SHA-256")
+                                        .digest(large.getBytes(UTF_8)));
+        performAsync(post("/delay/0").contentType(MediaType.TEXT_PLAIN).content(large))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").doesNotExist())
+                .andExpect(jsonPath("$.body.size").value(large.length()))
+                .andExpect(jsonPath("$.body.sha256").value(sha256))
+                .andExpect(jsonPath("$.body.preview").value("y".repeat(256)))
+                .andExpect(jsonPath("$.body.truncated").value(true))
+                .andExpect(jsonPath("$.body.spilled").value(true));
+
+        performAsync(
+                        put("/delay/0")
+                                .param("echo_body", "true")
+                                .contentType(MediaType.TEXT_PLAIN)
+                                .content(large))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data").value(large))
+                .andExpect(jsonPath("$.body.spilled").value(true));
+
+        performAsync(post("/delay/0").contentType(MediaType.TEXT_PLAIN).content("small"))
+                .andExpect(jsonPath("$.data").value("small"))
+                .andExpect(jsonPath("$.body.size").value(5))
+                .andExpect(jsonPath("$.body.truncated").value(false))
+                .andExpect(jsonPath("$.body.spilled").value(false));
+    }
+
     @Test
     void testDelayEndpointWithMultipleParams() throws Exception {
-        mockMvc.perform(get("/delay/1?param1=value1&param2=value2"))
+        performAsync(get("/delay/1?param1=value1&param2=value2"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.args.param1").value("value1"))
                 .andExpect(jsonPath("$.args.param2").value("value2"));
@@ -204,6 +1097,30 @@ class DynamicDataControllerTest {
         assertTrue(result.matches("[a-zA-Z0-9]+"));
     }
 
+    @Test
+    void testCharsEndpointAlphabets() throws Exception {
+        String hex =
+                mockMvc.perform(get("/chars/4096").param("alphabet", "hex"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        assertEquals(4096, hex.length());
+        assertTrue(hex.matches("[0-9a-f]+"));
+
+        String base32 =
+                mockMvc.perform(get("/chars/4096").param("alphabet", "base32"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        assertTrue(base32.matches("[A-Z2-7]{4096}"));
+
+        mockMvc.perform(get("/chars/16").param("alphabet", "klingon"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid parameter"));
+    }
+
     @Test
     void testCharsEndpointSmallSize() throws Exception {
         mockMvc.perform(get("/chars/5"))
@@ -483,7 +1400,7 @@ class DynamicDataControllerTest {
     void testDelayPostEndpoint() throws Exception {
         String jsonBody = "{\"test\": \"data\", \"number\": 123}";
 
-        mockMvc.perform(
+        performAsync(
                         post("/delay/1")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content(jsonBody)
@@ -501,7 +1418,7 @@ class DynamicDataControllerTest {
     void testDelayPutEndpoint() throws Exception {
         String xmlBody = "<user><name>John</name><age>30</age></user>";
 
-        mockMvc.perform(
+        performAsync(
                         put("/delay/1")
                                 .contentType(MediaType.APPLICATION_XML)
                                 .content(xmlBody)
@@ -515,7 +1432,7 @@ class DynamicDataControllerTest {
 
     @Test
     void testDelayDeleteEndpoint() throws Exception {
-        mockMvc.perform(delete("/delay/2").param("force", "true").param("reason", "cleanup"))
+        performAsync(delete("/delay/2").param("force", "true").param("reason", "cleanup"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.method").value("DELETE"))
                 .andExpect(jsonPath("$.args.force").value("true"))
@@ -526,7 +1443,7 @@ class DynamicDataControllerTest {
 
     @Test
     void testDelayGetEndpointStillWorks() throws Exception {
-        mockMvc.perform(get("/delay/1?test=value"))
+        performAsync(get("/delay/1?test=value"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.method").value("GET"))
                 .andExpect(jsonPath("$.args.test").value("value"))
@@ -537,7 +1454,7 @@ class DynamicDataControllerTest {
 
     @Test
     void testDelayPostWithoutBody() throws Exception {
-        mockMvc.perform(post("/delay/1").param("empty", "true"))
+        performAsync(post("/delay/1").param("empty", "true"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.method").value("POST"))
                 .andExpect(jsonPath("$.args.empty").value("true"))
@@ -547,19 +1464,19 @@ class DynamicDataControllerTest {
     @Test
     void testDelayAllMethodsTooLong() throws Exception {
         // Test that all methods respect the 60-second limit
-        mockMvc.perform(get("/delay/65"))
+        performAsync(get("/delay/65"))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Delay too long"));
 
-        mockMvc.perform(post("/delay/70"))
+        performAsync(post("/delay/70"))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Delay too long"));
 
-        mockMvc.perform(put("/delay/75"))
+        performAsync(put("/delay/75"))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Delay too long"));
 
-        mockMvc.perform(delete("/delay/80"))
+        performAsync(delete("/delay/80"))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Delay too long"));
     }
@@ -567,12 +1484,137 @@ class DynamicDataControllerTest {
     @Test
     void testDelayMaximumAllowedTime() throws Exception {
         // Test that 60 seconds is still allowed
-        mockMvc.perform(get("/delay/60?test=maxtime"))
+        performAsync(get("/delay/60?test=maxtime"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.method").value("GET"))
                 .andExpect(jsonPath("$.args.test").value("maxtime"));
     }
 
+    @Test
+    void testDelayEndpointSubSecond() throws Exception {
+        performAsync(get("/delay/0.25"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.method").value("GET"))
+                .andExpect(jsonPath("$.delay").value(0.25));
+    }
+
+    @Test
+    void testDelayEndpointSeededDistributionIsReproducible() throws Exception {
+        String first =
+                performAsync(get("/delay/0.3?distribution=uniform&min=0.02&seed=42"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+        String second =
+                performAsync(get("/delay/0.3?distribution=uniform&min=0.02&seed=42"))
+                        .andExpect(status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString();
+
+        Number firstDelay = com.jayway.jsonpath.JsonPath.read(first, "$.delay");
+        Number secondDelay = com.jayway.jsonpath.JsonPath.read(second, "$.delay");
+        assertEquals(firstDelay.doubleValue(), secondDelay.doubleValue());
+        assertTrue(firstDelay.doubleValue() >= 0.02 && firstDelay.doubleValue() <= 0.3);
+    }
+
+    @Test
+    void testDelayEndpointInvalidDistribution() throws Exception {
+        performAsync(get("/delay/1?distribution=bimodal"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid delay"));
+
+        performAsync(get("/delay/1?distribution=pareto&alpha=0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid delay"));
+    }
+
+    @Test
+    void testDelayEndpointHoldsThousandsOfConcurrentRequests() throws Exception {
+        int concurrentDelays = 5000;
+        ConnectionProvider connectionProvider =
+                ConnectionProvider.builder("delay-load")
+                        .maxConnections(concurrentDelays)
+                        .pendingAcquireMaxCount(-1)
+                        .build();
+        WebClient delayClient =
+                WebClient.builder()
+                        .baseUrl("http://localhost:" + port)
+                        .clientConnector(
+                                new org.springframework.http.client.reactive
+                                        .ReactorClientHttpConnector(
+                                        HttpClient.create(connectionProvider)))
+                        .build();
+        WebClient uuidClient = WebClient.builder().baseUrl("http://localhost:" + port).build();
+
+        try {
+            // Open the connections up front so the measured burst is not paced by TCP setup
+            sendConcurrentDelays(delayClient, "/delay/0", concurrentDelays)
+                    .get(60, TimeUnit.SECONDS);
+            measureUuidLatencyMillis(uuidClient, 5);
+            long baselineMillis = measureUuidLatencyMillis(uuidClient, 20);
+
+            // Long enough for the whole burst to arrive before the first delay fires, client and
+            // server share the machine so the ramp-up alone can take several seconds
+            CompletableFuture<List<Integer>> delayedStatuses =
+                    sendConcurrentDelays(delayClient, "/delay/10", concurrentDelays);
+
+            // Every delayed request has to be parked on the timer at the same time, which is
+            // impossible if each of them still holds one of Tomcat's 200 worker threads
+            long deadline = System.currentTimeMillis() + 10_000;
+            int peakPending = 0;
+            while (peakPending < concurrentDelays && System.currentTimeMillis() < deadline) {
+                peakPending = Math.max(peakPending, delayScheduler.pendingCount());
+                Thread.sleep(10);
+            }
+            assertEquals(concurrentDelays, peakPending);
+
+            long loadedMillis = measureUuidLatencyMillis(uuidClient, 20);
+            System.out.println(
+                    String.format(
+                            "/uuid max latency: %dms idle, %dms with %d pending delays",
+                            baselineMillis, loadedMillis, concurrentDelays));
+            assertTrue(
+                    loadedMillis < baselineMillis + 500,
+                    "/uuid should not queue behind delayed requests, but took "
+                            + loadedMillis
+                            + "ms");
+
+            List<Integer> statuses = delayedStatuses.get(30, TimeUnit.SECONDS);
+            assertEquals(concurrentDelays, statuses.size());
+            assertTrue(statuses.stream().allMatch(status -> status == 200));
+        } finally {
+            connectionProvider.disposeLater().block();
+        }
+    }
+
+    private CompletableFuture<List<Integer>> sendConcurrentDelays(
+            WebClient webClient, String uri, int count) {
+        return Flux.range(0, count)
+                .flatMap(
+                        i ->
+                                webClient
+                                        .get()
+                                        .uri(uri)
+                                        .retrieve()
+                                        .toBodilessEntity()
+                                        .map(entity -> entity.getStatusCode().value()),
+                        count)
+                .collectList()
+                .toFuture();
+    }
+
+    private long measureUuidLatencyMillis(WebClient webClient, int samples) {
+        List<Long> latencies = new ArrayList<>();
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            webClient.get().uri("/uuid").retrieve().bodyToMono(String.class).block();
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return latencies.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
     @Test
     void testWebClientTimeoutWithLongDelay() throws Exception {
         // Configure WebClient with 10-second timeout
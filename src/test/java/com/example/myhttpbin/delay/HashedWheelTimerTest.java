@@ -0,0 +1,66 @@
+package com.example.myhttpbin.delay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class HashedWheelTimerTest {
+
+    // Small wheel so the tests also cover deadlines that need more than one revolution
+    private final HashedWheelTimer timer =
+            new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 16);
+
+    @AfterEach
+    void stopTimer() {
+        timer.stop();
+    }
+
+    @Test
+    void testTimeoutFiresAfterDelay() throws Exception {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        HashedWheelTimer.Timeout timeout =
+                timer.newTimeout(fired::countDown, 100, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(timeout.isExpired());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testCancelledTimeoutNeverFires() throws Exception {
+        AtomicBoolean fired = new AtomicBoolean();
+        HashedWheelTimer.Timeout timeout =
+                timer.newTimeout(() -> fired.set(true), 50, TimeUnit.MILLISECONDS);
+        assertEquals(1, timer.pendingTimeouts());
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+
+        Thread.sleep(150);
+        assertFalse(fired.get());
+        assertTrue(timeout.isCancelled());
+    }
+
+    @Test
+    void testManyTimeoutsAllFire() throws Exception {
+        int count = 10_000;
+        CountDownLatch fired = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            timer.newTimeout(fired::countDown, i % 200, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertEquals(0, timer.pendingTimeouts());
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.myhttpbin.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class DtoSerializersTest {
+
+    private final ObjectMapper reflective = new ObjectMapper();
+    private final ObjectMapper handWritten =
+            new ObjectMapper().registerModule(new DtoSerializers());
+
+    @Test
+    void testSameOutputAsReflection() throws Exception {
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("a", "1");
+        args.put("tag", List.of("x", "y"));
+        List<Object> values =
+                List.of(
+                        new UuidResponse("0190c1a4-7b8e-7cc2-8e1f-2d0a6c1b9e44"),
+                        new Base64Response("héllo \"world\"\n"),
+                        new ErrorResponse("Invalid size", "Number of bytes must be positive"),
+                        new ErrorResponse("Invalid parameter", null),
+                        new DelayResponse(
+                                args, Map.of("Host", "localhost"), "127.0.0.1", "http://x/"),
+                        new DelayResponse(null, null, null, null));
+        for (Object value : values) {
+            assertEquals(
+                    reflective.writeValueAsString(value), handWritten.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void testRecordsReadBack() throws Exception {
+        ErrorResponse error = new ErrorResponse("Invalid count", "Count must be positive");
+        assertEquals(
+                error,
+                handWritten.readValue(handWritten.writeValueAsString(error), ErrorResponse.class));
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.myhttpbin.echo;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class BodyCaptureTest {
+
+    @TempDir Path spillDirectory;
+
+    private BodyCapture capture(long memoryThreshold) {
+        return new BodyCapture(DataSize.ofBytes(memoryThreshold), spillDirectory, 16);
+    }
+
+    @Test
+    void testSmallBodyStaysInMemory() throws Exception {
+        byte[] bytes = "  {\"name\":\"x\"}".getBytes(UTF_8);
+        try (CapturedBody body = capture(1024).capture(new ByteArrayInputStream(bytes), UTF_8)) {
+            assertFalse(body.isSpilled());
+            assertEquals(bytes.length, body.size());
+            assertEquals("  {\"name\":\"x\"}", body.text());
+            assertEquals("  {\"name\":\"x\"}", body.preview());
+            assertFalse(body.isPreviewTruncated());
+            assertEquals(sha256Hex(bytes), body.sha256Hex());
+            assertFalse(body.isBlank());
+        }
+        assertEquals(0, spillFiles());
+    }
+
+    @Test
+    void testLargeBodySpillsAndIsDeletedOnClose() throws Exception {
+        byte[] bytes = new byte[100_000];
+        new Random(1).nextBytes(bytes);
+        CapturedBody body = capture(10_000).capture(new ByteArrayInputStream(bytes), UTF_8);
+        try (body) {
+            assertTrue(body.isSpilled());
+            assertEquals(1, spillFiles());
+            assertEquals(bytes.length, body.size());
+            assertEquals(sha256Hex(bytes), body.sha256Hex());
+            assertTrue(body.isPreviewTruncated());
+            assertThrows(IllegalStateException.class, body::text);
+            // Readable more than once
+            for (int i = 0; i < 2; i++) {
+                try (InputStream in = body.openStream()) {
+                    assertArrayEquals(bytes, in.readAllBytes());
+                }
+            }
+        }
+        assertEquals(0, spillFiles());
+    }
+
+    @Test
+    void testBlankBody() throws Exception {
+        byte[] bytes = " \r\n\t".getBytes(UTF_8);
+        try (CapturedBody body = capture(1024).capture(new ByteArrayInputStream(bytes), UTF_8)) {
+            assertTrue(body.isBlank());
+        }
+    }
+
+    @Test
+    void testSpillFileRemovedWhenReadFails() throws IOException {
+        InputStream failing =
+                new InputStream() {
+                    private int remaining = 50_000;
+
+                    @Override
+                    public int read() throws IOException {
+                        if (remaining-- <= 0) {
+                            throw new IOException("Connection reset");
+                        }
+                        return 'x';
+                    }
+                };
+        assertThrows(IOException.class, () -> capture(10_000).capture(failing, UTF_8));
+        assertEquals(0, spillFiles());
+    }
+
+    @Test
+    void testCloseSurvivesUndeletableSpillFile() throws IOException {
+        CapturedBody body =
+                capture(1024).capture(new ByteArrayInputStream(new byte[10_000]), UTF_8);
+        Path spillFile;
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            spillFile = files.findFirst().orElseThrow();
+        }
+        // A non-empty directory in its place cannot be deleted
+        Files.delete(spillFile);
+        Files.createFile(Files.createDirectory(spillFile).resolve("child"));
+
+        body.close();
+        assertTrue(Files.isDirectory(spillFile));
+    }
+
+    private long spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static String sha256Hex(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.myhttpbin.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+class HistoryBufferTest {
+
+    @Test
+    void testKeepsNewestEntriesOfFullRing() {
+        HistoryBuffer buffer = new HistoryBuffer(5, 256);
+        assertEquals(8, buffer.capacity());
+        for (int i = 0; i < 20; i++) {
+            write(buffer, "/anything/" + i, i == 0 ? null : "i=" + i, 200 + i);
+        }
+
+        List<HistoryEntry> entries = buffer.newestFirst(entry -> true, Integer.MAX_VALUE);
+        assertEquals(8, entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            HistoryEntry entry = entries.get(i);
+            assertEquals(19 - i, entry.sequence());
+            assertEquals("/anything/" + (19 - i), entry.path());
+            assertEquals("i=" + (19 - i), entry.query());
+            assertEquals(219 - i, entry.status());
+            assertEquals(List.of("gzip", "br"), entry.headers().get("Accept-Encoding"));
+            assertFalse(entry.truncated());
+        }
+        assertEquals(20, buffer.recorded());
+        assertEquals(0, buffer.dropped());
+        assertEquals(3, buffer.newestFirst(entry -> entry.status() % 2 == 0, 3).size());
+    }
+
+    @Test
+    void testTruncatesEntriesBeyondEntrySize() {
+        HistoryBuffer buffer = new HistoryBuffer(4, 32);
+        HistoryBuffer.Slot slot = buffer.claim();
+        slot.request(0, "GET", "/bytes/10", null);
+        slot.header("Host", "localhost");
+        slot.header("User-Agent", "a user agent too long to fit");
+        slot.header("Accept", "*/*");
+        slot.response(200, 1_000_000, 0, -1);
+        buffer.publish(slot);
+
+        HistoryEntry entry = buffer.newestFirst(e -> true, 1).get(0);
+        assertEquals("GET", entry.method());
+        assertEquals("/bytes/10", entry.path());
+        assertNull(entry.query());
+        assertEquals(List.of("localhost"), entry.headers().get("Host"));
+        assertEquals(1, entry.headers().size());
+        assertTrue(entry.truncated());
+        assertNull(entry.bodyCrc32c());
+        assertEquals(1.0, entry.latencyMillis());
+    }
+
+    @Test
+    void testSkipsUnpublishedAndDropsLappingWriters() {
+        HistoryBuffer buffer = new HistoryBuffer(2, 64);
+        HistoryBuffer.Slot slow = buffer.claim();
+        write(buffer, "/uuid", null, 200);
+        assertEquals(1, buffer.newestFirst(entry -> true, 10).size());
+
+        // Sequence 2 maps to the slot still held by sequence 0
+        assertNull(buffer.claim());
+        assertEquals(1, buffer.dropped());
+
+        slow.request(0, "GET", "/delay/1", null);
+        slow.response(200, 0, 0, -1);
+        buffer.publish(slow);
+        // Sequence 0 is older than the ring now, its slot stays available for sequence 4
+        assertEquals(1, buffer.newestFirst(entry -> true, 10).size());
+        write(buffer, "/uuid", null, 200);
+        assertNotNull(buffer.claim());
+    }
+
+    @Test
+    void testConcurrentWritersNeverTearEntries() throws Exception {
+        HistoryBuffer buffer = new HistoryBuffer(64, 256);
+        int writers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                executor.submit(
+                        () -> {
+                            for (int i = 0; running.get(); i++) {
+                                // Path, query, status and header all derive from the same value
+                                int value = writer * 1_000_000 + i % 1_000_000;
+                                write(buffer, "/p/" + value, "v=" + value, value);
+                            }
+                        });
+            }
+            Future<Integer> reader =
+                    executor.submit(
+                            () -> {
+                                int checked = 0;
+                                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                                while (System.nanoTime() < deadline) {
+                                    for (HistoryEntry e : buffer.newestFirst(x -> true, 64)) {
+                                        String value = String.valueOf(e.status());
+                                        assertEquals("/p/" + value, e.path());
+                                        assertEquals("v=" + value, e.query());
+                                        assertEquals(
+                                                List.of(value), e.headers().get("X-Value"));
+                                        checked++;
+                                    }
+                                }
+                                return checked;
+                            });
+            assertTrue(reader.get(10, TimeUnit.SECONDS) > 0);
+        } finally {
+            running.set(false);
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void write(HistoryBuffer buffer, String path, String query, int status) {
+        HistoryBuffer.Slot slot = buffer.claim();
+        if (slot == null) {
+            return;
+        }
+        slot.request(System.currentTimeMillis(), "GET", path, query);
+        slot.header("Accept-Encoding", "gzip");
+        slot.header("Accept-Encoding", "br");
+        slot.header("X-Value", String.valueOf(status));
+        slot.response(status, 0, 0, -1);
+        buffer.publish(slot);
+    }
+}
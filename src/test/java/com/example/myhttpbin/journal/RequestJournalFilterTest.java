@@ -0,0 +1,123 @@
+package com.example.myhttpbin.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.example.myhttpbin.MyhttpbinApplication;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.jayway.jsonpath.JsonPath;
+
+@SpringBootTest(
+        classes = MyhttpbinApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "myhttpbin.journal.enabled=true")
+class RequestJournalFilterTest {
+
+    // As JournalReplay leaves them to the client
+    private static final Set<String> SKIPPED_HEADERS =
+            Set.of("host", "content-length", "connection", "transfer-encoding", "keep-alive");
+
+    @TempDir static Path directory;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("myhttpbin.journal.directory", directory::toString);
+    }
+
+    @LocalServerPort private int port;
+
+    @Autowired private RequestJournal journal;
+
+    @Test
+    void testFormPostIsJournaledAndReplayed() throws Exception {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("name", "journal entry");
+        form.add("tag", "a");
+        form.add("tag", "b");
+        WebClient webClient = WebClient.create("http://localhost:" + port);
+        String original =
+                webClient
+                        .post()
+                        .uri("/delay/0?q=1")
+                        .body(BodyInserters.fromFormData(form))
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .block(Duration.ofSeconds(10));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (journal.appended() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        List<JournalRecord> records = new ArrayList<>();
+        new JournalReader(directory).forEach(records::add);
+        assertEquals(1, records.size());
+        JournalRecord record = records.get(0);
+        assertEquals("/delay/0?q=1", record.uri());
+        String contentType = header(record, "Content-Type");
+        assertTrue(
+                contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE), contentType);
+        byte[] body = new byte[record.body().remaining()];
+        record.body().duplicate().get(body);
+        // The query string parameter stays in the query string
+        assertEquals("name=journal+entry&tag=a&tag=b", new String(body, UTF_8));
+
+        String replayed =
+                webClient
+                        .method(HttpMethod.valueOf(record.method()))
+                        .uri(URI.create("http://localhost:" + port + record.uri()))
+                        .headers(
+                                headers -> {
+                                    for (Map.Entry<String, List<String>> header :
+                                            record.headers().entrySet()) {
+                                        String name = header.getKey().toLowerCase(Locale.ROOT);
+                                        if (!SKIPPED_HEADERS.contains(name)) {
+                                            headers.addAll(header.getKey(), header.getValue());
+                                        }
+                                    }
+                                })
+                        .bodyValue(body)
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .block(Duration.ofSeconds(10));
+        for (String field : List.of("$.args.name", "$.args.tag", "$.args.q")) {
+            assertEquals(
+                    JsonPath.read(original, field).toString(),
+                    JsonPath.read(replayed, field).toString());
+        }
+        assertEquals("journal entry", JsonPath.read(replayed, "$.args.name"));
+    }
+
+    private static String header(JournalRecord record, String name) {
+        for (Map.Entry<String, List<String>> header : record.headers().entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue().get(0);
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.myhttpbin.journal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestJournalTest {
+
+    @TempDir Path directory;
+
+    @Test
+    void testRecordsReadBackInOrder() throws Exception {
+        RequestJournal journal = journal(DataSize.ofKilobytes(64), 4);
+        byte[] body = "{\"journal\":true}".getBytes(UTF_8);
+        journal.append(request("POST", "/delay/1", "seed=7"), 1000, body, body.length, false);
+        journal.append(request("GET", "/uuid", null), 2000, new byte[0], 0, false);
+        journal.destroy();
+        assertEquals(2, journal.appended());
+
+        List<JournalRecord> records = read();
+        assertEquals(2, records.size());
+        JournalRecord post = records.get(0);
+        assertEquals(1000, post.timestampMillis());
+        assertEquals("POST", post.method());
+        assertEquals("/delay/1?seed=7", post.uri());
+        assertEquals(List.of("application/json"), post.headers().get("Content-Type"));
+        assertEquals(List.of("a", "b"), post.headers().get("X-Tag"));
+        assertEquals("{\"journal\":true}", UTF_8.decode(post.body()).toString());
+        assertFalse(post.bodyTruncated());
+        // A view of the mapped segment
+        assertTrue(post.body().isDirect());
+        assertThrows(ReadOnlyBufferException.class, () -> post.body().put(0, (byte) 0));
+
+        JournalRecord get = records.get(1);
+        assertEquals("/uuid", get.uri());
+        assertNull(get.query());
+        assertEquals(0, get.body().remaining());
+    }
+
+    @Test
+    void testRollsSegmentsAndDeletesTheOldest() throws Exception {
+        RequestJournal journal = journal(DataSize.ofBytes(1024), 3);
+        byte[] body = new byte[300];
+        for (int i = 0; i < 20; i++) {
+            body[0] = (byte) i;
+            journal.append(request("POST", "/base64/encode", null), i, body, body.length, i == 19);
+        }
+        journal.destroy();
+
+        JournalReader reader = new JournalReader(directory);
+        assertEquals(3, reader.segments().size());
+        List<JournalRecord> records = read();
+        // Two records per segment, the last six remain
+        assertEquals(6, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(14 + i, records.get(i).timestampMillis());
+            assertEquals(14 + i, records.get(i).body().get(0));
+        }
+        assertTrue(records.get(5).bodyTruncated());
+
+        // A new writer continues after the existing segments
+        RequestJournal next = journal(DataSize.ofBytes(1024), 3);
+        next.append(request("GET", "/uuid", null), 100, body, 0, false);
+        next.destroy();
+        List<JournalRecord> all = read();
+        assertEquals(100, all.get(all.size() - 1).timestampMillis());
+    }
+
+    @Test
+    void testDropsRecordsLargerThanASegment() throws Exception {
+        RequestJournal journal = journal(DataSize.ofBytes(1024), 2);
+        byte[] body = new byte[1000];
+        journal.append(request("POST", "/base64/encode", null), 0, body, body.length, false);
+        journal.destroy();
+        assertEquals(0, journal.appended());
+        assertEquals(1, journal.dropped());
+        assertTrue(read().isEmpty());
+    }
+
+    @Test
+    void testCredentialsAreRedactedAndSegmentsPrivate() throws Exception {
+        MockHttpServletRequest request = request("GET", "/uuid", null);
+        request.addHeader("Authorization", "Bearer secret");
+        request.addHeader("cookie", "session=secret");
+        RequestJournal journal = journal(DataSize.ofKilobytes(64), 2);
+        journal.append(request, 0, new byte[0], 0, false);
+        journal.destroy();
+
+        JournalRecord record = read().get(0);
+        assertEquals(List.of("[redacted]"), record.headers().get("Authorization"));
+        assertEquals(List.of("[redacted]"), record.headers().get("cookie"));
+        assertEquals(List.of("a", "b"), record.headers().get("X-Tag"));
+        Path segment = new JournalReader(directory).segments().get(0);
+        assertEquals(PosixFilePermissions.fromString("rwx------"), permissions(directory));
+        assertEquals(PosixFilePermissions.fromString("rw-------"), permissions(segment));
+
+        RequestJournal keeping =
+                new RequestJournal(
+                        directory,
+                        DataSize.ofKilobytes(64),
+                        2,
+                        DataSize.ofKilobytes(1),
+                        DataSize.ofMegabytes(1),
+                        true,
+                        new SimpleMeterRegistry());
+        keeping.append(request, 1, new byte[0], 0, false);
+        keeping.destroy();
+        List<JournalRecord> records = read();
+        assertEquals(
+                List.of("Bearer secret"),
+                records.get(records.size() - 1).headers().get("Authorization"));
+    }
+
+    private static Set<PosixFilePermission> permissions(Path path) throws Exception {
+        return Files.getPosixFilePermissions(path);
+    }
+
+    private RequestJournal journal(DataSize segmentSize, int maxSegments) throws Exception {
+        return new RequestJournal(
+                directory,
+                segmentSize,
+                maxSegments,
+                DataSize.ofBytes(segmentSize.toBytes() - 1),
+                DataSize.ofMegabytes(1),
+                false,
+                new SimpleMeterRegistry());
+    }
+
+    private List<JournalRecord> read() throws Exception {
+        List<JournalRecord> records = new ArrayList<>();
+        new JournalReader(directory).forEach(records::add);
+        return records;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setQueryString(query);
+        request.addHeader("Host", "localhost:8080");
+        request.addHeader("Content-Type", "application/json");
+        request.addHeader("X-Tag", "a");
+        request.addHeader("X-Tag", "b");
+        return request;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.myhttpbin.payload;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.apache.catalina.Globals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+class FilePayloadStoreTest {
+
+    @TempDir Path directory;
+
+    @Test
+    void testFileIsProvisionedUpToTheMaximumSize() throws Exception {
+        FilePayloadStore store = new FilePayloadStore(directory, "random", DataSize.ofBytes(1000));
+        Path file = store.file();
+        assertEquals(1000, Files.size(file));
+
+        // Never grown by a request, however large
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/stream-bytes/2500");
+        request.setAttribute(Globals.SENDFILE_SUPPORTED_ATTR, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(store.serve(request, response, 2500));
+        assertEquals(1000, Files.size(file));
+
+        // Beyond the file, it is sent again from its start
+        byte[] content = Files.readAllBytes(file);
+        byte[] body = response.getContentAsByteArray();
+        assertEquals(2500, body.length);
+        assertEquals(2500, response.getContentLengthLong());
+        assertArrayEquals(content, Arrays.copyOfRange(body, 0, 1000));
+        assertArrayEquals(content, Arrays.copyOfRange(body, 1000, 2000));
+        assertArrayEquals(Arrays.copyOf(content, 500), Arrays.copyOfRange(body, 2000, 2500));
+    }
+
+    @Test
+    void testPayloadWithinTheFileIsHandedToTheConnector() throws Exception {
+        FilePayloadStore store = new FilePayloadStore(directory, "sparse", DataSize.ofKilobytes(4));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bytes/4096");
+        request.setAttribute(Globals.SENDFILE_SUPPORTED_ATTR, true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(store.serve(request, response, 4096));
+        assertEquals(store.file().toString(), request.getAttribute(Globals.SENDFILE_FILENAME_ATTR));
+        assertEquals(4096L, request.getAttribute(Globals.SENDFILE_FILE_END_ATTR));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.myhttpbin.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import com.example.myhttpbin.MyhttpbinApplication;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(
+        classes = MyhttpbinApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient(timeout = "30s")
+// Serves /actuator/prometheus, which tests leave out by default
+@AutoConfigureObservability(tracing = false)
+class ReactiveEndpointsTest {
+
+    @Autowired private WebTestClient webTestClient;
+
+    @Autowired private ReactiveWebServerApplicationContext context;
+
+    @Test
+    void testRunsOnNetty() {
+        assertInstanceOf(NettyWebServer.class, context.getWebServer());
+    }
+
+    @Test
+    void testUuid() {
+        webTestClient
+                .get()
+                .uri("/uuid?version=7")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.uuid")
+                .value(uuid -> assertEquals('7', ((String) uuid).charAt(14)));
+
+        webTestClient
+                .get()
+                .uri("/uuid?version=5")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectHeader()
+                .contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.error")
+                .isEqualTo("Invalid version");
+    }
+
+    @Test
+    void testBase64() {
+        webTestClient
+                .get()
+                .uri("/base64/SFRUUEJJTiBpcyBhd2Vzb21l")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.decoded")
+                .isEqualTo("HTTPBIN is awesome");
+
+        webTestClient
+                .get()
+                .uri("/base64/not-base64!")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody()
+                .jsonPath("$.error")
+                .isEqualTo("Invalid Base64");
+    }
+
+    @Test
+    void testDelayEcho() {
+        long start = System.nanoTime();
+        webTestClient
+                .get()
+                .uri("/delay/0.2?tag=a&tag=b")
+                .header("X-Echo", "yes")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.method")
+                .isEqualTo("GET")
+                .jsonPath("$.args.tag[1]")
+                .isEqualTo("b")
+                .jsonPath("$.headers.X-Echo")
+                .isEqualTo("yes")
+                .jsonPath("$.delay")
+                .isEqualTo(0.2);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 200);
+
+        webTestClient
+                .post()
+                .uri("/delay/0")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"x\",\"list\":[1,2]}")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.method")
+                .isEqualTo("POST")
+                .jsonPath("$.data")
+                .isEqualTo("{\"name\":\"x\",\"list\":[1,2]}")
+                .jsonPath("$.json.list[1]")
+                .isEqualTo(2)
+                .jsonPath("$.body.size")
+                .isEqualTo(25);
+    }
+
+    @Test
+    void testDelayErrors() {
+        webTestClient
+                .get()
+                .uri("/delay/61")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody()
+                .jsonPath("$.error")
+                .isEqualTo("Delay too long");
+
+        webTestClient
+                .get()
+                .uri("/delay/1?distribution=bimodal")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody()
+                .jsonPath("$.error")
+                .isEqualTo("Invalid delay");
+
+        // Beyond the 1MB memory threshold, reactive echoes are not spilled to disk
+        webTestClient
+                .put()
+                .uri("/delay/0")
+                .contentType(MediaType.TEXT_PLAIN)
+                .bodyValue("x".repeat(2 * 1024 * 1024))
+                .exchange()
+                .expectStatus()
+                .isEqualTo(413);
+    }
+
+    @Test
+    void testBytesFromEverySource() {
+        for (String source : new String[] {"generate", "pool", "file"}) {
+            byte[] body =
+                    webTestClient
+                            .get()
+                            .uri("/bytes/5000?source=" + source)
+                            .exchange()
+                            .expectStatus()
+                            .isOk()
+                            .expectHeader()
+                            .contentLength(5000)
+                            .expectBody()
+                            .returnResult()
+                            .getResponseBody();
+            assertEquals(5000, body.length);
+        }
+
+        webTestClient.get().uri("/bytes/0").exchange().expectStatus().isBadRequest();
+        webTestClient.get().uri("/bytes/2000000").exchange().expectStatus().isBadRequest();
+        webTestClient
+                .get()
+                .uri("/bytes/10?source=tape")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody()
+                .jsonPath("$.error")
+                .isEqualTo("Invalid parameter");
+    }
+
+    @Test
+    void testSeededBytesRanges() {
+        byte[] full =
+                webTestClient
+                        .get()
+                        .uri("/bytes/1000?seed=7")
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .expectBody()
+                        .returnResult()
+                        .getResponseBody();
+
+        byte[] part =
+                webTestClient
+                        .get()
+                        .uri("/bytes/1000?seed=7")
+                        .header(HttpHeaders.RANGE, "bytes=100-199")
+                        .exchange()
+                        .expectStatus()
+                        .isEqualTo(206)
+                        .expectHeader()
+                        .valueEquals(HttpHeaders.CONTENT_RANGE, "bytes 100-199/1000")
+                        .expectBody()
+                        .returnResult()
+                        .getResponseBody();
+        assertArrayEquals(Arrays.copyOfRange(full, 100, 200), part);
+
+        webTestClient
+                .get()
+                .uri("/bytes/1000?seed=7")
+                .header(HttpHeaders.RANGE, "bytes=100-199")
+                .header(HttpHeaders.IF_RANGE, "\"stale\"")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectHeader()
+                .contentLength(1000);
+
+        webTestClient
+                .get()
+                .uri("/bytes/1000?seed=7")
+                .header(HttpHeaders.RANGE, "bytes=2000-")
+                .exchange()
+                .expectStatus()
+                .isEqualTo(416)
+                .expectHeader()
+                .valueEquals(HttpHeaders.CONTENT_RANGE, "bytes */1000");
+    }
+
+    @Test
+    void testStreamBytes() {
+        byte[] body =
+                webTestClient
+                        .get()
+                        .uri("/stream-bytes/200000?chunk_size=4096")
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .expectHeader()
+                        .contentLength(200_000)
+                        .expectBody()
+                        .returnResult()
+                        .getResponseBody();
+        assertEquals(200_000, body.length);
+
+        webTestClient
+                .get()
+                .uri("/stream-bytes/100?chunk_size=0")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody()
+                .jsonPath("$.error")
+                .isEqualTo("Invalid chunk size");
+    }
+
+    @Test
+    void testChars() {
+        for (String query : new String[] {"", "?alphabet=hex", "?source=pool"}) {
+            String body =
+                    webTestClient
+                            .get()
+                            .uri("/chars/100000" + query)
+                            .exchange()
+                            .expectStatus()
+                            .isOk()
+                            .expectHeader()
+                            .contentTypeCompatibleWith(MediaType.TEXT_PLAIN)
+                            .expectBody(String.class)
+                            .returnResult()
+                            .getResponseBody();
+            assertEquals(100_000, body.length());
+            assertTrue(body.chars().allMatch(Character::isLetterOrDigit));
+        }
+
+        webTestClient
+                .get()
+                .uri("/chars/0")
+                .exchange()
+                .expectStatus()
+                .isBadRequest()
+                .expectBody()
+                .jsonPath("$.message")
+                .isEqualTo("Number of characters must be positive");
+    }
+
+    @Test
+    void testPrometheusScrape() {
+        webTestClient.get().uri("/bytes/64").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/bytes/0").exchange().expectStatus().isBadRequest();
+
+        String scrape =
+                webTestClient
+                        .get()
+                        .uri("/actuator/prometheus")
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .expectHeader()
+                        .contentTypeCompatibleWith(MediaType.TEXT_PLAIN)
+                        .expectBody(String.class)
+                        .returnResult()
+                        .getResponseBody();
+        assertTrue(scrape.contains("myhttpbin_response_bytes_total{uri=\"/bytes/{n}\",} "));
+        assertTrue(scrape.contains("myhttpbin_rejections_total{error=\"Invalid size\",} "));
+        assertTrue(scrape.contains("uri=\"/bytes/{n}\",le=\"+Inf\",} "));
+        // Reactor Netty's own meters are tagged with the first path segment only
+        assertEquals("/bytes", ReactiveConfiguration.uriTag("/bytes/64"));
+        assertEquals("/uuid", ReactiveConfiguration.uriTag("/uuid?version=7"));
+        assertEquals("/", ReactiveConfiguration.uriTag("/"));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.myhttpbin.uuid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class UuidBatchWriterTest {
+
+    @Test
+    void testCanonicalFormatMatchesUuidToString() {
+        SplittableRandom random = new SplittableRandom(7);
+        byte[] buffer = new byte[UuidFormat.CANONICAL_LENGTH];
+        for (int i = 0; i < 1000; i++) {
+            UUID uuid = new UUID(random.nextLong(), random.nextLong());
+            UuidBatchWriter.putCanonical(
+                    uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), buffer, 0);
+            assertEquals(uuid.toString(), new String(buffer, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    void testBatchLengthMatchesContentLength() throws Exception {
+        // Enough entries to flush the output buffer several times
+        long count = 10_000;
+        for (UuidFormat format : UuidFormat.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            UuidBatchWriter.write(
+                    out, format, count, UuidSequence.random(new SplittableRandom()));
+            assertEquals(format.contentLength(count), out.size(), format.name());
+        }
+    }
+}
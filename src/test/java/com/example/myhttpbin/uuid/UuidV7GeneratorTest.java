@@ -0,0 +1,105 @@
+package com.example.myhttpbin.uuid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final UuidV7Generator generator = new UuidV7Generator(clock::get);
+    private final SplittableRandom random = new SplittableRandom(1);
+
+    @Test
+    void testLayout() {
+        UUID uuid = generator.next(random);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(clock.get(), uuid.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void testMonotonicWithinMillisecondAndAcrossCounterOverflow() {
+        // More than the 2^18 values of one millisecond, the counter carries into the timestamp
+        UUID previous = generator.next(random);
+        for (int i = 0; i < 300_000; i++) {
+            UUID next = generator.next(random);
+            assertTrue(compareUnsigned(previous, next) < 0);
+            previous = next;
+        }
+        assertTrue((previous.getMostSignificantBits() >>> 16) > clock.get());
+    }
+
+    @Test
+    void testMonotonicWhenClockGoesBackwards() {
+        UUID before = generator.next(random);
+        clock.addAndGet(-10_000);
+        assertTrue(compareUnsigned(before, generator.next(random)) < 0);
+    }
+
+    @Test
+    void testSequenceContinuesAfterReservedRange() {
+        long[] bits = new long[2];
+        UuidSequence sequence = generator.sequence(1000, random);
+        UUID last = null;
+        for (int i = 0; i < 1000; i++) {
+            sequence.next(bits);
+            UUID next = new UUID(bits[0], bits[1]);
+            assertTrue(last == null || compareUnsigned(last, next) < 0);
+            last = next;
+        }
+        assertTrue(compareUnsigned(last, generator.next(random)) < 0);
+    }
+
+    @Test
+    void testUniqueAndPerThreadMonotonicAcrossThreads() throws Exception {
+        UuidV7Generator systemClock = new UuidV7Generator();
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        ConcurrentHashMap<UUID, Boolean> seen = new ConcurrentHashMap<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> generateAndCheck(systemClock, seen, failures)));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> String.join(", ", failures));
+        assertEquals(160_000, seen.size());
+    }
+
+    private static void generateAndCheck(
+            UuidV7Generator generator, Map<UUID, Boolean> seen, Queue<String> failures) {
+        SplittableRandom random = new SplittableRandom();
+        UUID previous = null;
+        for (int i = 0; i < 20_000; i++) {
+            UUID next = generator.next(random);
+            if (previous != null && compareUnsigned(previous, next) >= 0) {
+                failures.add(previous + " >= " + next);
+            }
+            if (seen.put(next, Boolean.TRUE) != null) {
+                failures.add("duplicate " + next);
+            }
+            previous = next;
+        }
+    }
+
+    /** Orders UUIDs by their bytes, {@link UUID#compareTo} compares signed longs. */
+    private static int compareUnsigned(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0
+                ? result
+                : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}